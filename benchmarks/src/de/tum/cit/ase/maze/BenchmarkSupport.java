@@ -0,0 +1,109 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * The BenchmarkSupport class holds the helpers shared by the benchmarks: locating the bundled maps,
+ * generating synthetic mazes and starting a headless libGDX application for the rendering benchmarks.
+ */
+final class BenchmarkSupport {
+    static final int LEVELS = 5; // Number of bundled maps/level-*.properties files
+
+    private static HeadlessApplication application;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Gets the path of a bundled level. The maps directory can be moved with the {@code maze.maps} system property.
+     *
+     * @param level The level number, from 1 to {@link #LEVELS}.
+     * @return The path of the level's {@code .properties} file.
+     */
+    static Path level(int level) {
+        return Path.of(System.getProperty("maze.maps", "maps"), "level-" + level + ".properties");
+    }
+
+    /**
+     * Loads a maze with all of its entities, without any OpenGL context.
+     *
+     * @param path The maze file.
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    static Maze load(Path path) throws IOException {
+        Maze maze = Maze.parse(path.toString());
+        maze.createEntities(Integer.MAX_VALUE);
+        return maze;
+    }
+
+    /**
+     * Writes a maze grid to a temporary binary maze file that is deleted when the JVM exits.
+     *
+     * @param grid The maze grid.
+     * @return The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    static Path writeTemporary(MazeFile.Grid grid) throws IOException {
+        Path path = Files.createTempFile("maze-benchmark", MazeFile.BINARY_EXTENSION);
+        path.toFile().deleteOnExit();
+        MazeFile.writeBinary(path, grid);
+        return path;
+    }
+
+    /**
+     * Generates a square maze with a wall border, random inner walls and a few of every entity.
+     * The entry is in the bottom-left corner and the key next to it; the same size always gives the same maze.
+     *
+     * @param size        The side length in cells.
+     * @param wallDensity The fraction of inner cells that are walls.
+     * @return The maze grid.
+     */
+    static MazeFile.Grid generate(int size, float wallDensity) {
+        Random random = new Random(size);
+        byte[] types = new byte[size * size];
+        Arrays.fill(types, MazeFile.EMPTY);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                boolean border = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                float roll = random.nextFloat();
+                if (border) {
+                    types[x * size + y] = (byte) (roll < 0.01f ? 2 : 0); // Exits sit on the border
+                } else if (roll < wallDensity) {
+                    types[x * size + y] = 0;
+                } else if (roll < wallDensity + 0.02f) {
+                    types[x * size + y] = 3;
+                } else if (roll < wallDensity + 0.04f) {
+                    types[x * size + y] = 4;
+                }
+            }
+        }
+        types[size + 1] = 1; // Entry at (1, 1)
+        types[size + 2] = 5; // Key at (1, 2)
+        return new MazeFile.Grid(size, size, types);
+    }
+
+    /**
+     * Starts a headless libGDX application once and installs an OpenGL implementation that does nothing,
+     * so that textures, sprite batches and sprite caches can be created and used without a GPU.
+     */
+    static synchronized void initHeadless() {
+        if (application == null) {
+            application = new HeadlessApplication(new ApplicationAdapter() {
+            }, new HeadlessApplicationConfiguration());
+        }
+        NoOpGL20 gl = new NoOpGL20();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+}
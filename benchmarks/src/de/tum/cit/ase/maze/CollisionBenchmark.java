@@ -0,0 +1,80 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the player's collision checks on generated mazes of growing size, and therefore growing
+ * numbers of walls, traps, exits and enemies. Each call checks the next of a fixed set of random positions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({"16", "64", "256", "1024"})
+    int size;
+
+    private World world;
+    private Maze maze;
+    private Player player;
+    private final Vector2[] positions = new Vector2[POSITIONS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        maze = BenchmarkSupport.load(BenchmarkSupport.writeTemporary(BenchmarkSupport.generate(size, 0.3f)));
+        world = new World(maze);
+        player = world.getPlayer();
+        Random random = new Random(size);
+        float extent = size * Maze.CELL_SIZE;
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Vector2(random.nextFloat() * extent, random.nextFloat() * extent);
+        }
+    }
+
+    private Vector2 nextPosition() {
+        next = (next + 1) & (POSITIONS - 1);
+        return positions[next];
+    }
+
+    @Benchmark
+    public boolean walls() {
+        return player.isCollidingWithWalls(nextPosition(), maze);
+    }
+
+    @Benchmark
+    public boolean traps() {
+        return player.isCollidingWithTraps(nextPosition(), maze, 0f);
+    }
+
+    @Benchmark
+    public boolean exits() {
+        return player.isCollidingWithExits(nextPosition(), world.getExitGrid());
+    }
+
+    @Benchmark
+    public boolean enemies() {
+        return player.isCollidingWithEnemies(nextPosition(), world.getEnemies(), world.getYovuz(), 0f);
+    }
+}
@@ -0,0 +1,163 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures one tick of enemy movement. {@code enemies} updates every random-walking enemy of a bundled level;
+ * {@code chasers} updates a growing number of intelligent enemies that chase the player on level 4, with the
+ * player switching between two cells so that the flow field is recomputed on every other call.
+ * {@code swarm} updates 10,000 wandering enemies on level 5, either on one thread or in parallel batches.
+ * {@code crowd} steps a whole world on a generated maze with about 20,000 wandering enemies while the player
+ * walks around, so that only the enemies near the player are awake, see {@link EnemyScheduler}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyBenchmark {
+
+    @State(Scope.Thread)
+    public static class Enemies {
+        @Param({"1", "2", "3", "4", "5"})
+        int level;
+
+        World world;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            world = new World(BenchmarkSupport.load(BenchmarkSupport.level(level)));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chasers {
+        @Param({"1", "100", "500"})
+        int count;
+
+        FlowField flowField;
+        Pathfinder pathfinder;
+        final Array<IntelligentEnemy> chasers = new Array<>();
+        final Vector2[] targets = new Vector2[2];
+        int tick;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Maze maze = BenchmarkSupport.load(BenchmarkSupport.level(4));
+            flowField = new FlowField(maze, 32);
+            pathfinder = new Pathfinder(maze, 2000, 64);
+
+            // Place the player on a free cell in the middle and the chasers on free cells around it
+            int centerX = maze.getWidth() / 2;
+            int centerY = maze.getHeight() / 2;
+            for (int radius = 0; targets[1] == null; radius++) {
+                for (int x = centerX - radius; x <= centerX + radius && targets[1] == null; x++) {
+                    if (!maze.isWall(x, centerY + radius)) {
+                        Vector2 target = new Vector2(x * Maze.CELL_SIZE, (centerY + radius) * Maze.CELL_SIZE);
+                        targets[targets[0] == null ? 0 : 1] = target;
+                    }
+                }
+            }
+            for (int radius = 1; chasers.size < count; radius++) {
+                for (int x = centerX - radius; x <= centerX + radius && chasers.size < count; x++) {
+                    for (int y = centerY - radius; y <= centerY + radius && chasers.size < count; y++) {
+                        boolean ring = Math.abs(x - centerX) == radius || Math.abs(y - centerY) == radius;
+                        if (ring && !maze.isWall(x, y)) {
+                            chasers.add(new IntelligentEnemy(new Vector2(x * Maze.CELL_SIZE, y * Maze.CELL_SIZE)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Swarm {
+        @Param({"false", "true"})
+        boolean parallel;
+
+        World world;
+        final EnemyStore enemies = new EnemyStore();
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            world = new World(BenchmarkSupport.load(BenchmarkSupport.level(5)));
+            Maze maze = world.getMaze();
+            Random random = new Random(5);
+            while (enemies.size() < 10000) {
+                int x = random.nextInt(maze.getWidth());
+                int y = random.nextInt(maze.getHeight());
+                if (!maze.isWall(x, y)) {
+                    enemies.add(x * Maze.CELL_SIZE, y * Maze.CELL_SIZE, random.nextLong());
+                }
+            }
+            enemies.setPool(parallel ? ForkJoinPool.commonPool() : null);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Crowd {
+        private static final int[] INPUTS = {World.INPUT_RIGHT, World.INPUT_UP, World.INPUT_LEFT, World.INPUT_DOWN};
+
+        @Param({"250", "1000"})
+        int size;
+
+        World world;
+        int tick;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            world = new World(BenchmarkSupport.load(BenchmarkSupport.writeTemporary(BenchmarkSupport.generate(size, 0.3f))));
+        }
+    }
+
+    @Benchmark
+    public void enemies(Enemies state) {
+        World world = state.world;
+        world.getEnemies().update(World.TICK, world.getMaze());
+    }
+
+    @Benchmark
+    public void chasers(Chasers state) {
+        Vector2 target = state.targets[state.tick++ & 1];
+        state.flowField.update(target);
+        state.pathfinder.update();
+        for (int i = 0; i < state.chasers.size; i++) {
+            state.chasers.get(i).update(World.TICK, target, state.flowField, state.pathfinder);
+        }
+    }
+
+    @Benchmark
+    public void swarm(Swarm state) {
+        state.enemies.update(World.TICK, state.world.getMaze());
+    }
+
+    @Benchmark
+    public int crowd(Crowd state) {
+        World world = state.world;
+        world.step(World.TICK, Crowd.INPUTS[(state.tick++ / 60) & 3]);
+        if (world.isOver()) {
+            world.restart();
+        }
+        return world.getEvents();
+    }
+}
@@ -0,0 +1,56 @@
+package de.tum.cit.ase.maze;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures loading every bundled level from the {@code .properties} file and from its binary {@link MazeFile} form.
+ * {@code parse} only reads the grid, {@code load} also creates the entities. With the {@code gc} profiler,
+ * {@code gc.alloc.rate.norm} divided by the number of cells gives the bytes allocated per cell.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MazeLoadBenchmark {
+    @Param({"1", "2", "3", "4", "5"})
+    int level;
+
+    @Param({"properties", "binary"})
+    String format;
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path properties = BenchmarkSupport.level(level);
+        path = format.equals("binary") ? BenchmarkSupport.writeTemporary(MazeFile.readProperties(properties)) : properties;
+    }
+
+    @Benchmark
+    public Maze parse() throws IOException {
+        return Maze.parse(path.toString());
+    }
+
+    @Benchmark
+    public Maze load() throws IOException {
+        return BenchmarkSupport.load(path);
+    }
+}
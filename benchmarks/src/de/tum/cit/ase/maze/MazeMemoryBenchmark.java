@@ -0,0 +1,105 @@
+package de.tum.cit.ase.maze;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Measures the heap a loaded maze retains, in bytes per cell, for the old layout with a {@link Cell} object for
+ * every cell and for the byte grid {@link Maze} uses now. Retained memory is not something JMH measures, so this
+ * is a plain program: it reads the used heap after garbage collection before and after building each layout,
+ * while the layout is still reachable.
+ * <p>
+ * The old layout is rebuilt the way {@code Maze} did before it was backed by a byte grid: a {@code Cell[][]}
+ * filled with a new {@code Cell} for every cell, each wall with its own {@link Wall}. Today's cells hold two
+ * fields fewer than the old ones and no objects for traps and enemies, so the old layout is if anything
+ * underestimated. The mazes are generated by {@link BenchmarkSupport#generate(int, float)}.
+ * <p>
+ * Run it with {@code gradlew :benchmarks:mazeMemory}; sizes can be given as arguments, e.g. {@code -Psizes=256,1024}.
+ */
+public final class MazeMemoryBenchmark {
+    private static final int[] DEFAULT_SIZES = {256, 512, 1024, 2048};
+    private static final float WALL_DENSITY = 0.3f;
+
+    private MazeMemoryBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i].trim());
+            }
+        }
+
+        System.out.printf("%10s %12s %18s %18s %8s%n", "size", "cells", "Cell[][] B/cell", "byte grid B/cell", "ratio");
+        for (int size : sizes) {
+            MazeFile.Grid grid = BenchmarkSupport.generate(size, WALL_DENSITY);
+            Path path = BenchmarkSupport.writeTemporary(grid);
+            long cells = (long) size * size;
+
+            double cellArray = retainedCellArray(grid) / (double) cells;
+            grid = null; // The byte grid is measured from the file, without the generated grid in memory
+            double byteGrid = retainedMaze(path) / (double) cells;
+            Files.deleteIfExists(path);
+
+            System.out.printf("%10s %,12d %18.1f %18.1f %7.0fx%n", size + "x" + size, cells, cellArray, byteGrid, cellArray / byteGrid);
+        }
+    }
+
+    /**
+     * Builds the old layout of a maze and measures the heap it retains.
+     *
+     * @param grid The maze grid.
+     * @return The retained bytes.
+     */
+    private static long retainedCellArray(MazeFile.Grid grid) {
+        long before = usedHeapAfterGc();
+        Cell[][] cells = new Cell[grid.width][grid.height];
+        for (int x = 0; x < grid.width; x++) {
+            for (int y = 0; y < grid.height; y++) {
+                cells[x][y] = new Cell(grid.getType(x, y), x, y);
+            }
+        }
+        long retained = usedHeapAfterGc() - before;
+        Reference.reachabilityFence(cells);
+        return retained;
+    }
+
+    /**
+     * Loads a maze with all of its entities and measures the heap it retains.
+     *
+     * @param path The maze file.
+     * @return The retained bytes.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long retainedMaze(Path path) throws IOException {
+        long before = usedHeapAfterGc();
+        Maze maze = BenchmarkSupport.load(path);
+        long retained = usedHeapAfterGc() - before;
+        Reference.reachabilityFence(maze);
+        return retained;
+    }
+
+    /**
+     * Collects garbage until the used heap stops shrinking and returns it.
+     *
+     * @return The used heap in bytes.
+     */
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,70 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the maze pass of a frame, the work {@code GameScreen.mazeRender} does, on every bundled level.
+ * The camera has the game's zoom, a 1920x1080 viewport and is centred on the player. OpenGL is replaced by
+ * {@link NoOpGL20}, so the result is the CPU cost of culling chunks and batching the visible tiles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MazeRenderBenchmark {
+    @Param({"1", "2", "3", "4", "5"})
+    int level;
+
+    private SpriteBatch batch;
+    private MazeRenderer renderer;
+    private OrthographicCamera camera;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.initHeadless();
+        Maze maze = BenchmarkSupport.load(BenchmarkSupport.level(level));
+        World world = new World(maze);
+
+        batch = new SpriteBatch();
+        renderer = new MazeRenderer(maze, world.getTraps(), Maze.CELL_SIZE);
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, 1920, 1080);
+        camera.zoom = 0.2f;
+        camera.position.set(world.getPlayer().getPosition(), 0);
+        camera.update();
+    }
+
+    @Benchmark
+    public void mazeRender() {
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        renderer.render(camera, batch);
+        batch.end();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.dispose();
+        batch.dispose();
+    }
+}
@@ -0,0 +1,52 @@
+package de.tum.cit.ase.maze;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the simulation throughput of every bundled level in ticks per second.
+ * The player walks in a different direction every second, and the world restarts whenever the game ends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldBenchmark {
+    private static final int[] INPUTS = {World.INPUT_RIGHT, World.INPUT_UP, World.INPUT_LEFT, World.INPUT_DOWN};
+
+    @Param({"1", "2", "3", "4", "5"})
+    int level;
+
+    private World world;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        world = new World(BenchmarkSupport.load(BenchmarkSupport.level(level)));
+    }
+
+    @Benchmark
+    public int step() {
+        world.step(World.TICK, INPUTS[(tick++ / 60) & 3]);
+        if (world.isOver()) {
+            world.restart();
+        }
+        return world.getEvents();
+    }
+}
@@ -0,0 +1,127 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Checks that the game loop allocates nothing once it is warmed up, so that playing never causes a garbage
+ * collection pause. The bytes allocated by the test thread are read from the JVM before and after a stretch of
+ * ticks or frames on every bundled level, with OpenGL replaced by {@link NoOpGL20}.
+ * <p>
+ * Code that runs for the first time may allocate once, for example when the JVM resolves a class or a string
+ * constant, and an enemy may take a branch for the first time after minutes of play. Each stretch is therefore
+ * played {@link #WARM_UP_RUNS} times with the same input first, and only an identical run is measured.
+ * The build runs the test with the C1 compiler only: C2 occasionally allocates when it deoptimizes a method,
+ * and its escape analysis could hide an allocation the code makes, while C1 allocates exactly what the code does.
+ */
+class AllocationTest {
+    private static final int TICKS = 3600; // A minute of game time
+    private static final int FRAMES = 600; // Ten seconds at 60 FPS
+    private static final int WARM_UP_RUNS = 3;
+    private static final int INPUT_TICKS = 30; // Ticks the scripted input holds a direction
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void setUp() {
+        BenchmarkSupport.initHeadless();
+    }
+
+    @Test
+    void worldStepAllocatesNothing() throws IOException {
+        for (int level = 1; level <= BenchmarkSupport.LEVELS; level++) {
+            World world = new World(BenchmarkSupport.load(BenchmarkSupport.level(level)));
+            for (int run = 0; run < WARM_UP_RUNS; run++) {
+                play(world);
+                world.restart();
+            }
+
+            long before = allocatedBytes();
+            play(world);
+            long allocated = allocatedBytes() - before;
+            assertEquals(0L, allocated, "Bytes allocated by " + TICKS + " ticks of level " + level);
+        }
+    }
+
+    @Test
+    void gameScreenRenderAllocatesNothing() throws IOException {
+        MazeRunnerGame game = new MazeRunnerGame(null);
+        game.create();
+        try {
+            for (int level = 1; level <= BenchmarkSupport.LEVELS; level++) {
+                for (int run = 0; run < WARM_UP_RUNS; run++) {
+                    GameScreen screen = startGame(game, level);
+                    render(screen);
+                    screen.dispose();
+                }
+
+                GameScreen screen = startGame(game, level);
+                long before = allocatedBytes();
+                render(screen);
+                long allocated = allocatedBytes() - before;
+                screen.dispose();
+                assertEquals(0L, allocated, "Bytes allocated by " + FRAMES + " frames of level " + level);
+            }
+        } finally {
+            game.dispose();
+        }
+    }
+
+    /**
+     * Steps a world with scripted input that changes direction every {@link #INPUT_TICKS} ticks.
+     * The same world always receives the same input, so that every run takes the same branches.
+     *
+     * @param world The world to play.
+     */
+    private static void play(World world) {
+        for (int tick = 0; tick < TICKS && !world.isOver(); tick++) {
+            // Pseudo-random direction per stretch of ticks, computed without allocating a Random
+            int direction = (int) (((tick / INPUT_TICKS) * 0x9E3779B97F4A7C15L) >>> 62);
+            world.step(World.TICK, 1 << direction);
+        }
+    }
+
+    /**
+     * Starts a game of a level on a freshly loaded maze and draws its first frame, which loads the graphics.
+     *
+     * @param game  The game.
+     * @param level The level number.
+     * @return The game screen.
+     * @throws IOException If the level cannot be read.
+     */
+    private static GameScreen startGame(MazeRunnerGame game, int level) throws IOException {
+        game.setMaze(BenchmarkSupport.load(BenchmarkSupport.level(level)));
+        GameScreen screen = new GameScreen(game);
+        screen.show();
+        screen.render(World.TICK);
+        return screen;
+    }
+
+    /**
+     * Draws frames of a game screen. Without a keyboard the player stands still at the entry.
+     *
+     * @param screen The game screen.
+     */
+    private static void render(GameScreen screen) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            screen.render(World.TICK);
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by the current thread.
+     *
+     * @return The allocated bytes.
+     */
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,80 @@
+package de.tum.cit.ase.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Checks that the {@code .properties} reader accepts everything the writer produces, in particular the
+ * {@link MazeFile#EMPTY} cells the writer puts in the last column and row to keep the size of the maze,
+ * and that it rejects cell types no cell knows how to handle.
+ */
+class MazeFileTest {
+
+    @Test
+    void propertiesRoundTrip() throws IOException {
+        MazeFile.Grid grid = BenchmarkSupport.generate(64, 0.3f);
+        for (int i = 8; i < 56; i++) {
+            grid.types[63 * 64 + i] = MazeFile.EMPTY; // Gaps in the last column
+            grid.types[i * 64 + 63] = MazeFile.EMPTY; // and in the last row
+        }
+
+        Path path = temporaryFile(".properties");
+        try (MazeFile.ColumnWriter writer = MazeFile.openWriter(path, grid.width, grid.height)) {
+            writer.writeColumns(grid.types, grid.width);
+        }
+        MazeFile.Grid read = MazeFile.readProperties(path);
+
+        assertEquals(grid.width, read.width, "Width read back");
+        assertEquals(grid.height, read.height, "Height read back");
+        assertArrayEquals(grid.types, read.types, "Cell types read back");
+    }
+
+    @Test
+    void emptyCellTypeIsAccepted() throws IOException {
+        Path path = write("0,0=0\n2,2=" + MazeFile.EMPTY + "\n");
+        assertEquals(MazeFile.EMPTY, MazeFile.readProperties(path).getType(2, 2), "Type of cell 2,2");
+    }
+
+    @Test
+    void unknownCellTypeIsRejected() throws IOException {
+        Path path = write("0,0=0\r\n1,1=1\r\n2,2=" + (MazeFile.EMPTY + 1) + "\r\n");
+        IOException e = assertThrows(IOException.class, () -> MazeFile.readProperties(path), "Reading type 8");
+        assertTrue(e.getMessage().contains("line 3"), "Message names the line: " + e.getMessage());
+    }
+
+    /**
+     * Writes a {@code .properties} maze to a temporary file.
+     *
+     * @param content The lines of the file.
+     * @return The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static Path write(String content) throws IOException {
+        Path path = temporaryFile(".properties");
+        Files.writeString(path, content, StandardCharsets.ISO_8859_1);
+        return path;
+    }
+
+    /**
+     * Creates a temporary file that is deleted when the JVM exits.
+     *
+     * @param extension The extension of the file.
+     * @return The path of the file.
+     * @throws IOException If the file cannot be created.
+     */
+    private static Path temporaryFile(String extension) throws IOException {
+        Path path = Files.createTempFile("maze-test", extension);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+}
@@ -0,0 +1,161 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+
+/**
+ * The Assets class is the central registry for the sprite sheets used by the game objects.
+ * Every sheet is uploaded to the GPU once and shared by all objects that use it, so the number
+ * of texture handles stays the same no matter how large the maze is.
+ * Textures are reference-counted: each {@link #acquire(String)} must be matched by a
+ * {@link #release(Texture)}, and a texture is disposed when its last reference is released.
+ */
+public final class Assets {
+
+    public static final String BASIC_TILES = "basictiles.png";
+    public static final String OBJECTS = "objects.png";
+    public static final String THINGS = "things.png";
+    public static final String MOBS = "mobs.png";
+    public static final String CHARACTER = "character.png";
+
+    private static final ObjectMap<String, Texture> textures = new ObjectMap<>();
+    private static final ObjectMap<Texture, String> paths = new ObjectMap<>();
+    private static final ObjectIntMap<String> references = new ObjectIntMap<>();
+    private static final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+    private static final ObjectMap<String, Animation<TextureRegion>> animations = new ObjectMap<>();
+
+    private Assets() {
+    }
+
+    /**
+     * Gets the shared texture for a sprite sheet and increases its reference count.
+     * The texture is loaded the first time it is acquired.
+     *
+     * @param path The internal path of the sprite sheet.
+     * @return The shared texture.
+     */
+    public static synchronized Texture acquire(String path) {
+        Texture texture = textures.get(path);
+        if (texture == null) {
+            texture = new Texture(Gdx.files.internal(path));
+            textures.put(path, texture);
+            paths.put(texture, path);
+        }
+        references.getAndIncrement(path, 0, 1);
+        return texture;
+    }
+
+    /**
+     * Releases one reference to a shared texture. When the last reference is released,
+     * the texture and all regions cut from it are disposed.
+     *
+     * @param texture The texture previously returned by {@link #acquire(String)}.
+     */
+    public static synchronized void release(Texture texture) {
+        String path = paths.get(texture);
+        if (path == null) {
+            return; // Not a registry texture
+        }
+        int remaining = references.getAndIncrement(path, 0, -1) - 1;
+        if (remaining <= 0) {
+            references.remove(path, 0);
+            textures.remove(path);
+            paths.remove(texture);
+            removeCached(regions, path);
+            removeCached(animations, path);
+            texture.dispose();
+        }
+    }
+
+    /**
+     * Gets a shared region of a sprite sheet. The caller must hold a reference to the sheet
+     * through {@link #acquire(String)} for as long as the region is used.
+     *
+     * @param path   The internal path of the sprite sheet.
+     * @param x      The x-coordinate of the region in the sheet.
+     * @param y      The y-coordinate of the region in the sheet.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     * @return The shared region.
+     */
+    public static synchronized TextureRegion region(String path, int x, int y, int width, int height) {
+        String key = path + ':' + x + ',' + y + ',' + width + ',' + height;
+        TextureRegion region = regions.get(key);
+        if (region == null) {
+            region = new TextureRegion(requireLoaded(path), x, y, width, height);
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    /**
+     * Gets a shared looping animation whose frames are laid out horizontally in a sprite sheet.
+     * The caller must hold a reference to the sheet through {@link #acquire(String)}.
+     *
+     * @param path          The internal path of the sprite sheet.
+     * @param x             The x-coordinate of the first frame.
+     * @param y             The y-coordinate of the frames.
+     * @param width         The width of each frame.
+     * @param height        The height of each frame.
+     * @param frames        The number of frames.
+     * @param frameDuration The duration of each frame in seconds.
+     * @return The shared animation.
+     */
+    public static synchronized Animation<TextureRegion> animation(String path, int x, int y, int width, int height,
+                                                                  int frames, float frameDuration) {
+        String key = path + ':' + x + ',' + y + ',' + width + ',' + height + 'x' + frames + '@' + frameDuration;
+        Animation<TextureRegion> animation = animations.get(key);
+        if (animation == null) {
+            Array<TextureRegion> regionFrames = new Array<>(TextureRegion.class);
+            for (int i = 0; i < frames; i++) {
+                regionFrames.add(region(path, x + i * width, y, width, height));
+            }
+            animation = new Animation<>(frameDuration, regionFrames, Animation.PlayMode.LOOP);
+            animations.put(key, animation);
+        }
+        return animation;
+    }
+
+    /**
+     * Gets the number of texture handles currently owned by the registry.
+     *
+     * @return The number of live textures.
+     */
+    public static synchronized int getTextureHandleCount() {
+        return textures.size;
+    }
+
+    /**
+     * Gets the current reference count of a sprite sheet.
+     *
+     * @param path The internal path of the sprite sheet.
+     * @return The number of outstanding references, 0 if the sheet is not loaded.
+     */
+    public static synchronized int getReferenceCount(String path) {
+        return references.get(path, 0);
+    }
+
+    private static Texture requireLoaded(String path) {
+        Texture texture = textures.get(path);
+        if (texture == null) {
+            throw new IllegalStateException("Texture " + path + " must be acquired before use");
+        }
+        return texture;
+    }
+
+    private static void removeCached(ObjectMap<String, ?> cache, String path) {
+        String prefix = path + ':';
+        ObjectMap.Keys<String> keys = new ObjectMap.Keys<>(cache);
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+}
@@ -4,23 +4,52 @@
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 /**
- * The AudioManager class manages audio resources and sound effects for the game.
+ * The AudioManager class manages the music and sound effects of the game. There is a single instance,
+ * owned by {@link MazeRunnerGame}, so every sound is decoded once for the whole session.
+ * <p>
+ * Gameplay code does not play sound effects itself; it posts them with {@link #post(int)}, which only
+ * increments a per-sound counter and never blocks, allocates or touches OpenAL, so it may be called from any thread.
+ * Once per frame, {@link #update(float)} drains the counters and plays the sounds: all posts of the same
+ * sound in a frame are coalesced into one voice, a sound is not restarted within its minimum interval, and
+ * a sound never has more than its maximum number of voices playing. Posts made with a position
+ * are culled when they are farther than {@link #AUDIBLE_DISTANCE} from the listener.
  */
 public class AudioManager {
+    // Sound effects that can be posted
+    public static final int LIFE_LOST = 0;
+    public static final int KEY_COLLECTED = 1;
+    public static final int DOOR_OPENS = 2;
+    public static final int MOVE = 3;
+    public static final int HIT = 4;
+    public static final int GHOST = 5;
+    public static final int VICTORY = 6;
+    public static final int GAME_OVER = 7;
+    public static final int SOUND_COUNT = 8;
+
+    // Properties of the sound effects, indexed by sound (Source for all files: zapsplat.net)
+    private static final String[] FILES = {"life_lost.mp3", "key_collect.mp3", "door_opens.mp3", "move.mp3",
+            "collision.mp3", "ghost.mp3", "you_won.mp3", "lost_game_over.mp3"};
+    private static final float[] VOLUMES = {0.3f, 0.5f, 0.5f, 0.3f, 0.3f, 0.3f, 0.5f, 1f};
+    private static final float[] LENGTHS = {1.8f, 0.4f, 3.6f, 0.4f, 0.8f, 8.1f, 3.4f, 2.7f}; // Seconds a voice plays
+    private static final float[] MIN_INTERVALS = {0.1f, 0f, 0f, 0.2f, 0.2f, 0.2f, 0f, 0f}; // Seconds between two starts
+    private static final int[] MAX_VOICES = {2, 2, 1, 2, 2, 1, 1, 1};
+
+    public static final float AUDIBLE_DISTANCE = 240f; // Distance in pixels beyond which positional sounds are culled
+
     private final Music backgroundMusic;
     private final Music gameBackgroundMusic;
-    private final Sound lifeLostSound;
-    private final Sound keyCollectedSound;
-    private final Sound doorOpens;
-    private final Sound victorySound;
-    private final Sound gameOverSound;
-    private final Sound moveSound;
-    private final Sound hitSound;
-    private final Sound ghostSound;
-    private float timeSinceLastHit = 0f; // Timer for hit sound
-    private boolean gameOverSoundPlayed = false;
-    private final float hitSoundInterval = 0.2f;
+    private final Sound[] sounds = new Sound[SOUND_COUNT];
+
+    private final AtomicIntegerArray pending = new AtomicIntegerArray(SOUND_COUNT); // Posts since the last update
+    private final float[][] voiceEnds = new float[SOUND_COUNT][]; // Time at which each voice of a sound stops
+    private final float[] lastStart = new float[SOUND_COUNT]; // Time at which each sound was last started
+    private float time; // Seconds since the audio manager was created
+    private volatile float listenerX;
+    private volatile float listenerY;
 
     /**
      * Constructor for AudioManager. Initializes audio resources.
@@ -35,15 +64,12 @@ public AudioManager() {
         gameBackgroundMusic.setVolume(0.02f);
         backgroundMusic.setVolume(0.02f);
 
-        // Load sound effects (Source for all: zapsplat.net)
-        lifeLostSound = Gdx.audio.newSound(Gdx.files.internal("life_lost.mp3"));
-        keyCollectedSound = Gdx.audio.newSound(Gdx.files.internal("key_collect.mp3"));
-        doorOpens = Gdx.audio.newSound(Gdx.files.internal("door_opens.mp3"));
-        moveSound = Gdx.audio.newSound(Gdx.files.internal("move.mp3"));
-        victorySound = Gdx.audio.newSound(Gdx.files.internal("you_won.mp3"));
-        gameOverSound = Gdx.audio.newSound(Gdx.files.internal("lost_game_over.mp3"));
-        hitSound = Gdx.audio.newSound(Gdx.files.internal("collision.mp3"));
-        ghostSound = Gdx.audio.newSound(Gdx.files.internal("ghost.mp3"));
+        // Load sound effects
+        for (int sound = 0; sound < SOUND_COUNT; sound++) {
+            sounds[sound] = Gdx.audio.newSound(Gdx.files.internal(FILES[sound]));
+            voiceEnds[sound] = new float[MAX_VOICES[sound]];
+        }
+        Arrays.fill(lastStart, Float.NEGATIVE_INFINITY);
     }
 
     /**
@@ -85,81 +111,65 @@ public void stopGameBackgroundMusic() {
     }
 
     /**
-     * Plays the life lost sound with a time interval.
-     */
-    public void playLifeLostSound() {
-        float lostSoundInterval = 0.1f;
-        if (timeSinceLastHit >= lostSoundInterval) {
-            lifeLostSound.play(0.3f);
-            timeSinceLastHit = 0; // Reset the timer
-        }
-    }
-
-    /**
-     * Plays the move sound with a time interval.
+     * Posts a sound effect to be played with the next {@link #update(float)}. Safe to call from any thread.
+     *
+     * @param sound The sound, one of the sound constants.
      */
-    public void playMoveSound() {
-        if (timeSinceLastHit >= hitSoundInterval) {
-            moveSound.play(0.3f);
-            timeSinceLastHit = 0; // Reset the timer
-        }
+    public void post(int sound) {
+        pending.incrementAndGet(sound);
     }
 
     /**
-     * Plays the hit sound effect with a time interval.
+     * Posts a sound effect made at a position in the maze. It is dropped if the position is not within
+     * {@link #AUDIBLE_DISTANCE} of the listener. Safe to call from any thread.
+     *
+     * @param sound The sound, one of the sound constants.
+     * @param x     The x-coordinate where the sound is made (in pixels).
+     * @param y     The y-coordinate where the sound is made (in pixels).
      */
-    public void playHitSound() {
-
-        if (timeSinceLastHit >= hitSoundInterval) {
-            hitSound.play(0.3f);
-            timeSinceLastHit = 0; // Reset the timer
+    public void post(int sound, float x, float y) {
+        float dx = x - listenerX;
+        float dy = y - listenerY;
+        if (dx * dx + dy * dy <= AUDIBLE_DISTANCE * AUDIBLE_DISTANCE) {
+            pending.incrementAndGet(sound);
         }
     }
 
     /**
-     * Plays the ghost sound effect with a time interval.
+     * Sets the position that positional sounds are heard from, normally the player's.
+     *
+     * @param x The x-coordinate of the listener (in pixels).
+     * @param y The y-coordinate of the listener (in pixels).
      */
-    public void playGhostSound() {
-
-
-        if (timeSinceLastHit >= 0.2f) {
-            ghostSound.play(0.3f);
-            timeSinceLastHit = 0; // Reset the timer
-        }
+    public void setListener(float x, float y) {
+        listenerX = x;
+        listenerY = y;
     }
 
     /**
-     * Updates the audio manager with the elapsed time.
+     * Plays the sounds posted since the last update, within the limits of each sound.
+     * Called once per frame on the render thread.
      *
      * @param deltaTime The time elapsed since the last frame.
      */
     public void update(float deltaTime) {
-        // Increment the timer
-        timeSinceLastHit += deltaTime;
-    }
-
-    /**
-     * Plays the key collected sound and door opens sound simultaneously.
-     */
-    public void playKeyCollectedSound() {
-        keyCollectedSound.play(0.5f);
-        doorOpens.play(0.5f);
-    }
-
-    /**
-     * Plays the victory sound.
-     */
-    public void playVictorySound() {
-        victorySound.play(0.5f);
-    }
-
-    /**
-     * Plays the game over sound once.
-     */
-    public void playGameOverSound() {
-        if (!gameOverSoundPlayed) {
-            gameOverSound.play();
-            gameOverSoundPlayed = true;
+        time += deltaTime;
+        for (int sound = 0; sound < SOUND_COUNT; sound++) {
+            if (pending.get(sound) == 0 || pending.getAndSet(sound, 0) == 0) {
+                continue; // Nothing posted; all posts of the same sound within a frame are coalesced into one
+            }
+            if (time - lastStart[sound] < MIN_INTERVALS[sound]) {
+                continue;
+            }
+            float[] ends = voiceEnds[sound];
+            for (int voice = 0; voice < ends.length; voice++) {
+                if (ends[voice] <= time) { // A free voice
+                    sounds[sound].play(VOLUMES[sound]);
+                    ends[voice] = time + LENGTHS[sound];
+                    lastStart[sound] = time;
+                    break;
+                }
+            }
         }
     }
 
@@ -167,11 +177,10 @@ public void playGameOverSound() {
      * Disposes of all music and sound assets when no longer needed.
      */
     public void dispose() {
-        // Dispose of all music and sound assets when no longer needed
         backgroundMusic.dispose();
-        lifeLostSound.dispose();
-        keyCollectedSound.dispose();
-        victorySound.dispose();
-        gameOverSound.dispose();
+        gameBackgroundMusic.dispose();
+        for (Sound sound : sounds) {
+            sound.dispose();
+        }
     }
 }
@@ -1,9 +1,7 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 
@@ -13,7 +11,7 @@
  */
 public class Background extends GameObject{
 
-    private Sprite spriteBackground;    // Sprite for rendering the background
+    private TextureRegion spriteBackground;    // Shared region for rendering the background
     private Vector2 position;           // Position of the background
 
 
@@ -26,11 +24,10 @@ public class Background extends GameObject{
     public Background(Vector2 position) {
         super(position);
         this.position = new Vector2();
-        super.texture = new Texture(Gdx.files.internal("basictiles.png"));
+        super.texture = Assets.acquire(Assets.BASIC_TILES);
 
-        // Initialize the sprite for this wall
-        this.spriteBackground = new Sprite(texture, 16, 9*16, 16, 16);
-        this.spriteBackground.setPosition(position.x, position.y);
+        // Use the shared floor region
+        this.spriteBackground = Assets.region(Assets.BASIC_TILES, 16, 9*16, 16, 16);
     }
 
     /**
@@ -69,12 +66,12 @@ public void render(SpriteBatch spriteBatch) {
 
 
     /**
-     * Gets the Sprite object representing the background.
+     * Gets the region representing the background.
      *
-     * @return The Sprite object used for rendering the background.
+     * @return The shared region used for rendering the background.
      */
 
-    public Sprite getSpriteBackground() {
+    public TextureRegion getSpriteBackground() {
         return spriteBackground;
     }
 
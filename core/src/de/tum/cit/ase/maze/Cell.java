@@ -1,6 +1,8 @@
 package de.tum.cit.ase.maze;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 
@@ -8,17 +10,16 @@
  * The Cell class represents a cell in the game maze.
  * Each cell can have different types, such as walls, players, enemies, traps, keys, exits, and background.
  * It provides methods for rendering and updating the cell based on its type.
+ * Walls and empty cells are shared between all cells of the same type, see {@link Maze#getCell(int, int)}.
  */
 public class Cell {
     private int type;
     private Player player;
-    private Enemy enemy;
-    private Trap trap;
     private Key key;
     private Wall wall;
     private Exit exit;
-    private Background background;
-    private Background backgrounded;
+    private Texture floorTexture;
+    private TextureRegion floor;
 
 
     /**
@@ -30,7 +31,6 @@ public class Cell {
      * @param y    The y-coordinate of the cell in the maze.
      */
     public Cell(int type, int x, int y) {
-        this.backgrounded = new Background(new Vector2(x,y));
         this.type = type;
 
         // Initialize objects based on the type
@@ -38,6 +38,7 @@ public Cell(int type, int x, int y) {
             case 0,6:
 
                 this.wall = new Wall(new Vector2(x,y));
+                this.wall.setBackWall(type == 6);
                 break;
             case 1:
                 this.player = new Player(new Vector2(x, y));
@@ -45,19 +46,9 @@ public Cell(int type, int x, int y) {
             case 2:
                 this.exit = new Exit(new Vector2(x,y));
                 break;
-            case 3:
-                this.trap = new Trap(new Vector2(x, y));
-                break;
-            case 4:
-                this.enemy = new Enemy(new Vector2(x, y));
-                break;
             case 5:
                 this.key = new Key(new Vector2(x, y));
                 break;
-
-            case 7:
-                this.background = new Background(new Vector2(x,y));
-                break;
         }
     }
 
@@ -69,7 +60,12 @@ public Cell(int type, int x, int y) {
      * @param y            The y-coordinate where the cell should be rendered.
      */
     public void render(SpriteBatch spriteBatch, float x, float y) {
-        spriteBatch.draw(backgrounded.getSpriteBackground(),x,y);
+        if (floor == null) {
+            // The floor under every cell is a shared region, not an object per cell
+            this.floorTexture = Assets.acquire(Assets.BASIC_TILES);
+            this.floor = Assets.region(Assets.BASIC_TILES, 16, 9*16, 16, 16);
+        }
+        spriteBatch.draw(floor,x,y);
         // Render objects based on the type
         switch (type) {
             case 0,6:
@@ -81,11 +77,8 @@ public void render(SpriteBatch spriteBatch, float x, float y) {
             case 2:
                 exit.render(spriteBatch,x,y);
                 break;
-            case 3:
-                trap.render(spriteBatch, x, y);
-                break;
-            case 4:
-//                Enemy is rendered within GameScreen
+            case 3,4:
+//                Traps and enemies are rendered from their stores, see TrapStore and EnemyStore
                 break;
             case 5:
                 key.render(spriteBatch, x, y);
@@ -111,11 +104,8 @@ public void update(float delta) {
             case 2:
                 exit.update(delta);
                 break;
-            case 3:
-                trap.update(delta);
-                break;
-            case 4:
-//                Enemy update is implemented within GameScreen
+            case 3,4:
+//                Traps and enemies are updated by World
                 break;
             case 5:
                 key.update(delta);
@@ -125,6 +115,20 @@ public void update(float delta) {
     }
 
 
+    /**
+     * Releases the shared textures held by this cell and the object it contains.
+     */
+    public void dispose() {
+        if (floorTexture != null) {
+            Assets.release(floorTexture);
+            floorTexture = null;
+            floor = null; // Acquired again when next drawn
+        }
+        if (wall != null) wall.dispose();
+        if (player != null) player.dispose();
+        if (exit != null) exit.dispose();
+        if (key != null) key.dispose();
+    }
 
     public int getType() {
         return type;
@@ -138,14 +142,6 @@ public Player getPlayer() {
         return player;
     }
 
-    public Enemy getEnemy() {
-        return enemy;
-    }
-
-    public Trap getTrap() {
-        return trap;
-    }
-
     public Key getKey() {
         return key;
     }
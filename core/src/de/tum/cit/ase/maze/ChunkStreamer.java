@@ -0,0 +1,207 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.BitSet;
+
+
+/**
+ * The ChunkStreamer class brings the entities of a streamed maze to life around the player and puts them to
+ * rest behind the player, so that a world never holds more than the entities of a few chunks, however large
+ * the maze is.
+ * <p>
+ * The chunks within {@link #ACTIVE_RADIUS} of the player's chunk are active: their exits and traps exist and
+ * their enemies have been spawned. When the player enters another chunk, the chunks that fall out of the active
+ * window are deactivated and the ones that come into it are activated. The cells of the chunks within
+ * {@link #RESIDENT_RADIUS} are pinned in {@link MazeChunks}, so the chunks about to be activated are already
+ * in memory and everything farther away may be evicted.
+ * <p>
+ * An enemy is spawned from its cell the first time its chunk is activated. From then on, it is put to sleep
+ * and woken by the world's {@link EnemyScheduler} like the enemies of any other maze; the awake regions lie
+ * well within the active chunks. Exits and traps have no state that matters to the game and are simply created
+ * again from the cells.
+ */
+public class ChunkStreamer {
+    public static final int ACTIVE_RADIUS = 1; // Chunks around the player's chunk whose entities exist
+    public static final int RESIDENT_RADIUS = 2; // Chunks around the player's chunk whose cells are kept in memory
+    private static final int BUCKET_CELLS = 4; // Cells per side of a bucket of the exit grid
+
+    private final Maze maze;
+    private final MazeChunks chunks;
+    private final int chunkSize;
+    private final EnemyStore enemies;
+    private final TrapStore traps;
+    private final Array<Exit> exits;
+    private final SpatialGrid<Exit> exitGrid; // Exits of the active chunks
+    private final BitSet spawned = new BitSet(); // Chunks whose enemies have been spawned from their cells
+    private int centerX = -1; // Chunk of the player, -1 before the first update
+    private int centerY = -1;
+    private long activations;
+
+    /**
+     * Constructs a new ChunkStreamer for a streamed maze. No chunk is active until the first update.
+     *
+     * @param maze    The streamed maze.
+     * @param enemies The store the enemies are spawned into.
+     * @param traps   The store of the active traps.
+     * @param exits   The list of the active exits.
+     */
+    public ChunkStreamer(Maze maze, EnemyStore enemies, TrapStore traps, Array<Exit> exits) {
+        this.maze = maze;
+        this.chunks = maze.getChunks();
+        this.chunkSize = chunks.getChunkSize();
+        this.enemies = enemies;
+        this.traps = traps;
+        this.exits = exits;
+        int buckets = (2 * ACTIVE_RADIUS + 1) * chunkSize / BUCKET_CELLS;
+        this.exitGrid = new SpatialGrid<>(buckets, buckets, Maze.CELL_SIZE * BUCKET_CELLS);
+    }
+
+    /**
+     * Moves the active window along with the player.
+     *
+     * @param playerPosition The position of the player.
+     * @param exitsOpen      True if the exits are open, which they are once the player has the key.
+     */
+    public void update(Vector2 playerPosition, boolean exitsOpen) {
+        int x = Math.max(0, Math.min(chunks.getChunksX() - 1, Maze.cellOf(playerPosition.x) / chunkSize));
+        int y = Math.max(0, Math.min(chunks.getChunksY() - 1, Maze.cellOf(playerPosition.y) / chunkSize));
+        if (x != centerX || y != centerY) {
+            moveWindow(x, y, exitsOpen);
+        }
+    }
+
+    /**
+     * Deactivates the chunks that leave the active window, activates the ones that enter it and pins the
+     * cells around the new window.
+     *
+     * @param x         The x-coordinate of the player's new chunk.
+     * @param y         The y-coordinate of the player's new chunk.
+     * @param exitsOpen True if the exits are open.
+     */
+    private void moveWindow(int x, int y, boolean exitsOpen) {
+        int oldX = centerX;
+        int oldY = centerY;
+        centerX = x;
+        centerY = y;
+        chunks.pin(x - RESIDENT_RADIUS, y - RESIDENT_RADIUS, x + RESIDENT_RADIUS, y + RESIDENT_RADIUS);
+
+        // The exits and traps of inactive chunks are dropped, enemies are left to the EnemyScheduler
+        for (int i = traps.size() - 1; i >= 0; i--) {
+            if (!isActive(Maze.cellOf(traps.getX(i)), Maze.cellOf(traps.getY(i)))) {
+                traps.remove(traps.getHandle(i));
+            }
+        }
+        for (int i = exits.size - 1; i >= 0; i--) {
+            Exit exit = exits.get(i);
+            int cellX = Maze.cellOf(exit.getPosition().x);
+            int cellY = Maze.cellOf(exit.getPosition().y);
+            if (!isActive(cellX, cellY)) {
+                exits.removeIndex(i);
+                maze.getCell(cellX, cellY).dispose();
+                maze.removeCell(cellX, cellY);
+            }
+        }
+
+        for (int cx = Math.max(0, x - ACTIVE_RADIUS); cx <= Math.min(chunks.getChunksX() - 1, x + ACTIVE_RADIUS); cx++) {
+            for (int cy = Math.max(0, y - ACTIVE_RADIUS); cy <= Math.min(chunks.getChunksY() - 1, y + ACTIVE_RADIUS); cy++) {
+                if (oldX < 0 || Math.abs(cx - oldX) > ACTIVE_RADIUS || Math.abs(cy - oldY) > ACTIVE_RADIUS) {
+                    activate(cx, cy, exitsOpen);
+                }
+            }
+        }
+
+        int cellPixels = Maze.CELL_SIZE * chunkSize;
+        exitGrid.clear((x - ACTIVE_RADIUS) * (float) cellPixels, (y - ACTIVE_RADIUS) * (float) cellPixels);
+        for (int i = 0; i < exits.size; i++) {
+            exitGrid.add(exits.get(i));
+        }
+    }
+
+    /**
+     * Activates a chunk: creates its exits, traps and, the first time, its enemies from its cells.
+     *
+     * @param chunkX    The x-coordinate of the chunk.
+     * @param chunkY    The y-coordinate of the chunk.
+     * @param exitsOpen True if the exits are open.
+     */
+    private void activate(int chunkX, int chunkY, boolean exitsOpen) {
+        activations++;
+        int chunk = chunkX * chunks.getChunksY() + chunkY;
+        if (chunks.getEntityCount(chunkX, chunkY) == 0) {
+            spawned.set(chunk);
+            return; // Nothing but walls and floor
+        }
+
+        boolean spawn = !spawned.get(chunk);
+        spawned.set(chunk);
+        byte[] cells = chunks.getCells(chunkX, chunkY); // Cells outside the maze are empty
+        for (int i = 0; i < cells.length; i++) {
+            int type = cells[i];
+            if (type >= 2 && type <= 4) {
+                int x = chunkX * chunkSize + i / chunkSize;
+                int y = chunkY * chunkSize + i % chunkSize;
+                switch (type) {
+                    case 2 -> {
+                        Cell cell = new Cell(2, x, y);
+                        Exit exit = cell.getExit();
+                        exit.position.set(x * Maze.CELL_SIZE, y * Maze.CELL_SIZE);
+                        exit.setClosed(!exitsOpen);
+                        maze.putCell(x, y, cell);
+                        exits.add(exit);
+                    }
+                    case 3 -> traps.add(x, y);
+                    case 4 -> {
+                        if (spawn) {
+                            enemies.add(x * Maze.CELL_SIZE, y * Maze.CELL_SIZE, x, y);
+                        }
+                    }
+                    default -> {
+                        // The entry and the key are created with the maze, walls and floor need no objects
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a cell lies in an active chunk.
+     *
+     * @param cellX The x-coordinate of the cell.
+     * @param cellY The y-coordinate of the cell.
+     * @return True if the cell's chunk is within {@link #ACTIVE_RADIUS} of the player's chunk, false otherwise.
+     */
+    private boolean isActive(int cellX, int cellY) {
+        return Math.abs(Math.floorDiv(cellX, chunkSize) - centerX) <= ACTIVE_RADIUS
+                && Math.abs(Math.floorDiv(cellY, chunkSize) - centerY) <= ACTIVE_RADIUS;
+    }
+
+    /**
+     * Removes all entities and forgets which chunks were visited, so that the next update starts the maze afresh.
+     */
+    public void reset() {
+        enemies.clear();
+        traps.clear();
+        for (int i = 0; i < exits.size; i++) {
+            Exit exit = exits.get(i);
+            int cellX = Maze.cellOf(exit.getPosition().x);
+            int cellY = Maze.cellOf(exit.getPosition().y);
+            maze.getCell(cellX, cellY).dispose();
+            maze.removeCell(cellX, cellY);
+        }
+        exits.clear();
+        exitGrid.clear(0, 0);
+        spawned.clear();
+        centerX = -1;
+        centerY = -1;
+    }
+
+    public SpatialGrid<Exit> getExitGrid() {
+        return exitGrid;
+    }
+
+    public long getActivations() {
+        return activations;
+    }
+}
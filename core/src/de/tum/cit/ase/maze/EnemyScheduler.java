@@ -0,0 +1,171 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongArray;
+
+
+/**
+ * The EnemyScheduler class decides which wandering enemies are simulated, so that the cost of a tick depends on
+ * how many enemies are near the player rather than on how many there are in the whole maze.
+ * <p>
+ * The maze is divided into square regions of {@link #REGION_CELLS} cells. The enemies in the regions within
+ * {@link #AWAKE_RADIUS} of the player's region are awake: they stay in the world's {@link EnemyStore} and are
+ * updated every tick. An enemy outside of these regions falls asleep: it is moved into a store of its own, filed
+ * under its region, and costs nothing until the player comes near again. The awake regions reach well beyond the
+ * view, so a sleeping enemy is never seen and never touches the player.
+ * <p>
+ * When its region is woken, an enemy is fast-forwarded by the time it slept with
+ * {@link EnemyStore#catchUp(int, float, Maze)}, which takes a few coarse steps instead of one update per missed
+ * tick. Sleeping and waking only depend on the position of the player and the tick, so a world still plays out
+ * exactly the same way for the same input. Mazes that fit within the awake regions, like the bundled levels,
+ * never have a sleeping enemy.
+ */
+public class EnemyScheduler {
+    public static final int REGION_CELLS = 32; // Cells per side of a region
+    public static final int AWAKE_RADIUS = 2; // Regions around the player's region whose enemies are awake
+
+    /**
+     * The Sleepers class holds the sleeping enemies of one region and the tick each of them fell asleep.
+     */
+    private static final class Sleepers {
+        private final IntArray handles = new IntArray(); // Handles in the store of sleeping enemies
+        private final LongArray since = new LongArray();
+    }
+
+    private final Maze maze;
+    private final EnemyStore enemies;
+    private final EnemyStore sleeping = new EnemyStore(); // Enemies outside of the awake regions
+    private final IntMap<Sleepers> sleepersByRegion = new IntMap<>(); // By region index regionX * regionsY + regionY
+    private final int regionsX;
+    private final int regionsY;
+    private int centerX = -1; // Region of the player, -1 before the first update
+    private int centerY = -1;
+    private long wakes; // Enemies woken so far
+
+    /**
+     * Constructs a new EnemyScheduler. All enemies are awake until the first update.
+     *
+     * @param maze    The maze the enemies walk in.
+     * @param enemies The store of the awake enemies.
+     */
+    public EnemyScheduler(Maze maze, EnemyStore enemies) {
+        this.maze = maze;
+        this.enemies = enemies;
+        this.regionsX = (maze.getWidth() + REGION_CELLS - 1) / REGION_CELLS;
+        this.regionsY = (maze.getHeight() + REGION_CELLS - 1) / REGION_CELLS;
+        sleeping.setPool(null); // Sleeping enemies are never updated
+    }
+
+    /**
+     * Wakes the regions the player has come near and puts the enemies outside of the awake regions to sleep.
+     *
+     * @param playerPosition The position of the player.
+     * @param tick           The current tick of the world.
+     * @param delta          The length of a tick in seconds.
+     */
+    public void update(Vector2 playerPosition, long tick, float delta) {
+        int x = Math.max(0, Math.min(regionsX - 1, Maze.cellOf(playerPosition.x) / REGION_CELLS));
+        int y = Math.max(0, Math.min(regionsY - 1, Maze.cellOf(playerPosition.y) / REGION_CELLS));
+        if (x != centerX || y != centerY) {
+            int oldX = centerX;
+            int oldY = centerY;
+            centerX = x;
+            centerY = y;
+            for (int rx = Math.max(0, x - AWAKE_RADIUS); rx <= Math.min(regionsX - 1, x + AWAKE_RADIUS); rx++) {
+                for (int ry = Math.max(0, y - AWAKE_RADIUS); ry <= Math.min(regionsY - 1, y + AWAKE_RADIUS); ry++) {
+                    if (oldX < 0 || Math.abs(rx - oldX) > AWAKE_RADIUS || Math.abs(ry - oldY) > AWAKE_RADIUS) {
+                        wake(rx * regionsY + ry, tick, delta);
+                    }
+                }
+            }
+        }
+        sleepStrays(tick);
+    }
+
+    /**
+     * Wakes the sleeping enemies of a region and fast-forwards each of them by the time it slept.
+     *
+     * @param region The index of the region.
+     * @param tick   The current tick of the world.
+     * @param delta  The length of a tick in seconds.
+     */
+    private void wake(int region, long tick, float delta) {
+        Sleepers sleepers = sleepersByRegion.get(region);
+        if (sleepers == null) {
+            return;
+        }
+        for (int i = 0; i < sleepers.handles.size; i++) {
+            int handle = sleeping.moveTo(sleeping.getSlot(sleepers.handles.get(i)), enemies);
+            enemies.catchUp(enemies.getSlot(handle), (tick - sleepers.since.get(i)) * delta, maze);
+        }
+        wakes += sleepers.handles.size;
+        sleepers.handles.clear(); // Kept for the next time the region falls asleep
+        sleepers.since.clear();
+    }
+
+    /**
+     * Puts the awake enemies that are outside of the awake regions to sleep, filed under the region they are in.
+     *
+     * @param tick The current tick of the world.
+     */
+    private void sleepStrays(long tick) {
+        // Bounds of the awake regions in pixels, so that most enemies are checked without a division
+        float regionPixels = REGION_CELLS * Maze.CELL_SIZE;
+        float left = (centerX - AWAKE_RADIUS) * regionPixels;
+        float right = (centerX + AWAKE_RADIUS + 1) * regionPixels;
+        float bottom = (centerY - AWAKE_RADIUS) * regionPixels;
+        float top = (centerY + AWAKE_RADIUS + 1) * regionPixels;
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            float x = enemies.getX(i);
+            float y = enemies.getY(i);
+            if (x >= left && x < right && y >= bottom && y < top) {
+                continue;
+            }
+            int regionX = Math.max(0, Math.min(regionsX - 1, Maze.cellOf(x) / REGION_CELLS));
+            int regionY = Math.max(0, Math.min(regionsY - 1, Maze.cellOf(y) / REGION_CELLS));
+            if (Math.abs(regionX - centerX) <= AWAKE_RADIUS && Math.abs(regionY - centerY) <= AWAKE_RADIUS) {
+                continue; // Outside of the maze, but filed under an awake region at its edge
+            }
+            int region = regionX * regionsY + regionY;
+            Sleepers sleepers = sleepersByRegion.get(region);
+            if (sleepers == null) {
+                sleepers = new Sleepers();
+                sleepersByRegion.put(region, sleepers);
+            }
+            sleepers.handles.add(enemies.moveTo(i, sleeping));
+            sleepers.since.add(tick);
+        }
+    }
+
+    /**
+     * Forgets all sleeping enemies, so that the next update starts from the enemies in the world's store.
+     */
+    public void reset() {
+        sleeping.clear();
+        for (Sleepers sleepers : sleepersByRegion.values()) {
+            sleepers.handles.clear();
+            sleepers.since.clear();
+        }
+        centerX = -1;
+        centerY = -1;
+    }
+
+    /**
+     * Computes a checksum of the sleeping enemies, which {@link World#checksum()} does not see otherwise.
+     *
+     * @return A hash of all fields of all sleeping enemies.
+     */
+    public long checksum() {
+        return sleeping.checksum();
+    }
+
+    public int getSleepingCount() {
+        return sleeping.size();
+    }
+
+    public long getWakes() {
+        return wakes;
+    }
+}
@@ -0,0 +1,444 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * The EnemyStore class holds all wandering enemies of a game as parallel arrays.
+ * An enemy walks in a random direction until it hits a wall, a trap or an exit, or has walked
+ * {@link #MOVEMENT_DISTANCE} pixels, and then picks a new random direction.
+ * <p>
+ * Each enemy has its own random generator, stored as the 48-bit state of a {@link java.util.Random},
+ * so an enemy makes exactly the same choices as a {@code Random} created with the same seed would.
+ * <p>
+ * Large stores are updated in parallel batches on a {@link ForkJoinPool}. An enemy's next state only depends
+ * on its own state of the previous tick and on the maze, which does not change while the enemies move, so
+ * batches never touch each other's slots and the result is identical to a sequential update.
+ */
+public class EnemyStore extends EntityStore {
+    public static final float MOVEMENT_DISTANCE = 100f;
+    public static final float SPEED = 30f; // Pixels per second
+    public static final float SIZE = 12f; // Side length of an enemy's bounds for collisions with obstacles
+    public static final float OBSTACLE_SIZE = 15f; // Side length of the bounds of walls, traps and exits
+    public static final float CATCH_UP_STEP = 0.125f; // Length in seconds of one step when fast-forwarding an enemy
+    public static final float MAX_CATCH_UP = 10f; // Time in seconds an enemy is fast-forwarded by at most
+
+    // Directions, in the order the random generator picks them
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    private static final float[] DIRECTION_X = {0, 0, -1, 1};
+    private static final float[] DIRECTION_Y = {1, -1, 0, 0};
+
+    // Constants of java.util.Random's linear congruential generator
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private static final int BATCH_SIZE = 1024; // Enemies updated by one parallel task
+
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] previousX = new float[0]; // Position at the start of the current simulation tick
+    private float[] previousY = new float[0];
+    private float[] distanceMoved = new float[0];
+    private float[] lastStep = new float[0]; // Distance moved in the last update, undone on a collision
+    private float[] elapsedTime = new float[0];
+    private byte[] direction = new byte[0];
+    private long[] random = new long[0];
+
+    private ForkJoinPool pool = Runtime.getRuntime().availableProcessors() > 1 ? ForkJoinPool.commonPool() : null;
+    private final UpdatePhase updatePhase = new UpdatePhase();
+    private Batch[] batches = new Batch[0];
+
+    private Texture texture;
+    private Animation<TextureRegion>[] animations; // Walking animation per direction
+
+    /**
+     * Adds an enemy whose random directions are seeded from its cell, so the same maze always plays out the same way.
+     *
+     * @param x     The x-coordinate of the enemy in pixels.
+     * @param y     The y-coordinate of the enemy in pixels.
+     * @param cellX The x-coordinate of the enemy's starting cell.
+     * @param cellY The y-coordinate of the enemy's starting cell.
+     * @return The handle of the enemy.
+     */
+    public int add(float x, float y, int cellX, int cellY) {
+        return add(x, y, seedOf(cellX, cellY));
+    }
+
+    /**
+     * Gets the random seed of an enemy starting in a cell.
+     *
+     * @param cellX The x-coordinate of the enemy's starting cell.
+     * @param cellY The y-coordinate of the enemy's starting cell.
+     * @return The seed for the enemy's random directions.
+     */
+    public static long seedOf(int cellX, int cellY) {
+        return 31L * Float.floatToIntBits(cellX) + Float.floatToIntBits(cellY);
+    }
+
+    /**
+     * Adds an enemy with its own random seed.
+     *
+     * @param x    The x-coordinate of the enemy in pixels.
+     * @param y    The y-coordinate of the enemy in pixels.
+     * @param seed The seed for the enemy's random directions.
+     * @return The handle of the enemy.
+     */
+    public int add(float x, float y, long seed) {
+        int slot = allocate();
+        this.x[slot] = x;
+        this.y[slot] = y;
+        previousX[slot] = x;
+        previousY[slot] = y;
+        distanceMoved[slot] = 0f;
+        lastStep[slot] = 0f;
+        elapsedTime[slot] = 0f;
+        random[slot] = (seed ^ MULTIPLIER) & MASK;
+        direction[slot] = (byte) nextDirection(slot);
+        return getHandle(slot);
+    }
+
+    /**
+     * Moves every enemy by one tick. An enemy that has run into an obstacle steps back out of it
+     * and turns; so does an enemy that has walked its maximum distance.
+     *
+     * @param delta The time in seconds that has elapsed since the last update.
+     * @param maze  The maze holding the walls, traps and exits.
+     */
+    public void update(float delta, Maze maze) {
+        if (pool == null || size < 2 * BATCH_SIZE) {
+            update(0, size, delta, maze);
+            return;
+        }
+        int count = (size + BATCH_SIZE - 1) / BATCH_SIZE;
+        if (batches.length < count) {
+            batches = Arrays.copyOf(batches, count);
+            for (int i = 0; i < count; i++) {
+                if (batches[i] == null) {
+                    batches[i] = new Batch(i * BATCH_SIZE);
+                }
+            }
+        }
+        updatePhase.prepare(count, delta, maze);
+        pool.invoke(updatePhase);
+    }
+
+    /**
+     * Moves the enemies in a range of slots by one tick.
+     *
+     * @param from  The first slot.
+     * @param to    The slot after the last one.
+     * @param delta The time in seconds that has elapsed since the last update.
+     * @param maze  The maze holding the walls, traps and exits.
+     */
+    private void update(int from, int to, float delta, Maze maze) {
+        float distance = SPEED * delta;
+        for (int i = from; i < to; i++) {
+            elapsedTime[i] += delta;
+            int d = direction[i];
+            if (isCollidingWithObstacles(x[i], y[i], maze)) {
+                // Step back out of the obstacle and change direction
+                x[i] += DIRECTION_X[d] * -lastStep[i];
+                y[i] += DIRECTION_Y[d] * -lastStep[i];
+                turn(i);
+            } else if (distanceMoved[i] >= MOVEMENT_DISTANCE) {
+                turn(i);
+            } else {
+                // Move in the current direction
+                x[i] += DIRECTION_X[d] * distance;
+                y[i] += DIRECTION_Y[d] * distance;
+                distanceMoved[i] += distance;
+                lastStep[i] = distance;
+            }
+        }
+    }
+
+    /**
+     * Fast-forwards an enemy that has not been updated for a while, as an enemy woken by {@link EnemyScheduler}.
+     * Instead of one update per missed tick, the enemy takes steps of {@link #CATCH_UP_STEP} seconds, and only
+     * for the last {@link #MAX_CATCH_UP} seconds, so a wake costs at most a few dozen steps however long the enemy
+     * slept. The enemy ends up near where a full simulation would have taken it, though not in the same place.
+     *
+     * @param slot The slot of the enemy.
+     * @param time The time in seconds the enemy has missed.
+     * @param maze The maze holding the walls, traps and exits.
+     */
+    public void catchUp(int slot, float time, Maze maze) {
+        float remaining = Math.min(time, MAX_CATCH_UP);
+        elapsedTime[slot] += time - remaining; // Keeps the walking animation going for the skipped time
+        for (; remaining >= CATCH_UP_STEP; remaining -= CATCH_UP_STEP) {
+            update(slot, slot + 1, CATCH_UP_STEP, maze);
+        }
+        if (remaining > 0) {
+            update(slot, slot + 1, remaining, maze);
+        }
+        previousX[slot] = x[slot]; // Appear in place rather than slide over from where the enemy fell asleep
+        previousY[slot] = y[slot];
+    }
+
+    /**
+     * Sets the pool that updates large stores in parallel.
+     *
+     * @param pool The pool, or null to always update on the calling thread.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The parallel update of one tick: forks one task per batch and waits for all of them.
+     * The phase and its batches are reused every tick, so a parallel update does not allocate.
+     */
+    private class UpdatePhase extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int count;
+        private float delta;
+        private Maze maze;
+
+        void prepare(int count, float delta, Maze maze) {
+            reinitialize();
+            this.count = count;
+            this.delta = delta;
+            this.maze = maze;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 1; i < count; i++) {
+                batches[i].reinitialize();
+                batches[i].fork();
+            }
+            batches[0].reinitialize();
+            batches[0].invoke();
+            for (int i = count - 1; i > 0; i--) {
+                batches[i].join();
+            }
+        }
+    }
+
+    /**
+     * A fixed range of {@link #BATCH_SIZE} slots updated by one task.
+     */
+    private class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        Batch(int from) {
+            this.from = from;
+        }
+
+        @Override
+        protected void compute() {
+            update(from, Math.min(from + BATCH_SIZE, size), updatePhase.delta, updatePhase.maze);
+        }
+    }
+
+    /**
+     * Picks a new random direction for an enemy and starts counting its distance again.
+     *
+     * @param slot The slot of the enemy.
+     */
+    private void turn(int slot) {
+        direction[slot] = (byte) nextDirection(slot);
+        distanceMoved[slot] = 0f;
+        lastStep[slot] = 0f;
+    }
+
+    /**
+     * Advances an enemy's random generator, equivalent to {@code Random.nextInt(4)}.
+     *
+     * @param slot The slot of the enemy.
+     * @return The new direction, from {@link #UP} to {@link #RIGHT}.
+     */
+    private int nextDirection(int slot) {
+        long seed = (random[slot] * MULTIPLIER + ADDEND) & MASK;
+        random[slot] = seed;
+        return (int) ((4 * (seed >>> 17)) >> 31);
+    }
+
+    /**
+     * Checks if an enemy's bounds overlap an exit, a trap or a wall.
+     *
+     * @param x    The x-coordinate of the enemy.
+     * @param y    The y-coordinate of the enemy.
+     * @param maze The maze holding the walls, traps and exits.
+     * @return True if the enemy is colliding with an obstacle, false otherwise.
+     */
+    private static boolean isCollidingWithObstacles(float x, float y, Maze maze) {
+        return maze.overlapsObstacle(x, y, SIZE, SIZE, OBSTACLE_SIZE);
+    }
+
+    /**
+     * Moves an enemy with all of its state, including its random generator, into another store.
+     * {@link EnemyScheduler} uses this to put enemies to sleep and wake them again.
+     *
+     * @param slot   The slot of the enemy in this store.
+     * @param target The store to move the enemy to.
+     * @return The handle of the enemy in the target store.
+     */
+    public int moveTo(int slot, EnemyStore target) {
+        int to = target.allocate();
+        target.x[to] = x[slot];
+        target.y[to] = y[slot];
+        target.previousX[to] = previousX[slot];
+        target.previousY[to] = previousY[slot];
+        target.distanceMoved[to] = distanceMoved[slot];
+        target.lastStep[to] = lastStep[slot];
+        target.elapsedTime[to] = elapsedTime[slot];
+        target.direction[to] = direction[slot];
+        target.random[to] = random[slot];
+        remove(getHandle(slot));
+        return target.getHandle(to);
+    }
+
+    /**
+     * Finds an enemy whose bounds overlap the given rectangle.
+     *
+     * @param x          The x-coordinate of the rectangle.
+     * @param y          The y-coordinate of the rectangle.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @param enemySize  The side length of the bounds of each enemy.
+     * @return The slot of an overlapping enemy, or -1 if there is none.
+     */
+    public int findOverlapping(float x, float y, float rectWidth, float rectHeight, float enemySize) {
+        for (int i = 0; i < size; i++) {
+            if (SpatialGrid.overlaps(x, y, rectWidth, rectHeight, this.x[i], this.y[i], enemySize, enemySize)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remembers the current positions as the positions at the start of a simulation tick,
+     * so that rendering can interpolate between two ticks.
+     */
+    public void savePositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    /**
+     * Loads the walking animations on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
+        }
+        texture = Assets.acquire(Assets.MOBS);
+
+        // Shared animations, frames are arranged horizontally in the texture and frameSize is 16
+        @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created directly
+        Animation<TextureRegion>[] directions = new Animation[4];
+        animations = directions;
+        animations[UP] = Assets.animation(Assets.MOBS, 9 * 16, 7 * 16, 16, 16, 3, 0.2f);
+        animations[DOWN] = Assets.animation(Assets.MOBS, 9 * 16, 16*4, 16, 16, 3, 0.2f);
+        animations[LEFT] = Assets.animation(Assets.MOBS, 9 * 16, 16*5, 16, 16, 3, 0.2f);
+        animations[RIGHT] = Assets.animation(Assets.MOBS, 9 * 16, 6 * 16, 16, 16, 3, 0.2f);
+    }
+
+    /**
+     * Renders the enemies inside the camera's view with the walking animation of their direction.
+     *
+     * @param batch  The SpriteBatch used for drawing.
+     * @param camera The camera whose view is drawn.
+     * @param alpha  The fraction of the current simulation tick that has passed, used to interpolate the positions.
+     */
+    public void render(SpriteBatch batch, OrthographicCamera camera, float alpha) {
+        loadGraphics();
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float left = camera.position.x - halfWidth - Maze.CELL_SIZE;
+        float right = camera.position.x + halfWidth;
+        float bottom = camera.position.y - halfHeight - Maze.CELL_SIZE;
+        float top = camera.position.y + halfHeight;
+
+        for (int i = 0; i < size; i++) {
+            float renderX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float renderY = previousY[i] + (y[i] - previousY[i]) * alpha;
+            if (renderX >= left && renderX <= right && renderY >= bottom && renderY <= top) {
+                batch.draw(animations[direction[i]].getKeyFrame(elapsedTime[i], true), renderX, renderY);
+            }
+        }
+    }
+
+    /**
+     * Releases the shared enemy texture.
+     */
+    public void dispose() {
+        if (texture != null) {
+            Assets.release(texture);
+            texture = null;
+        }
+    }
+
+    /**
+     * Computes a checksum of the state of every enemy, including its random generator.
+     *
+     * @return A hash of all fields of all enemies.
+     */
+    public long checksum() {
+        long hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = hash * 31 + Float.floatToIntBits(x[i]);
+            hash = hash * 31 + Float.floatToIntBits(y[i]);
+            hash = hash * 31 + Float.floatToIntBits(distanceMoved[i]);
+            hash = hash * 31 + Float.floatToIntBits(elapsedTime[i]);
+            hash = hash * 31 + direction[i];
+            hash = hash * 31 + random[i];
+        }
+        return hash;
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    public int getDirection(int slot) {
+        return direction[slot];
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        distanceMoved = Arrays.copyOf(distanceMoved, capacity);
+        lastStep = Arrays.copyOf(lastStep, capacity);
+        elapsedTime = Arrays.copyOf(elapsedTime, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        random = Arrays.copyOf(random, capacity);
+    }
+
+    @Override
+    protected void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+        distanceMoved[to] = distanceMoved[from];
+        lastStep[to] = lastStep[from];
+        elapsedTime[to] = elapsedTime[from];
+        direction[to] = direction[from];
+        random[to] = random[from];
+    }
+}
@@ -0,0 +1,127 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+
+/**
+ * The EntityStore class is the base of the structure-of-arrays entity stores. Subclasses keep every field
+ * of their entities in a parallel primitive array, indexed by slot, so that updating all entities is a
+ * loop over contiguous memory instead of a walk over separately allocated objects.
+ * <p>
+ * Slots are always packed: removing an entity moves the last entity into its slot. Code that needs to
+ * refer to one entity across removals keeps its handle, which stays valid until the entity is removed.
+ */
+public abstract class EntityStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    protected int size; // Number of entities, they occupy the slots 0 to size - 1
+    private int capacity;
+    private int[] slotOfHandle = new int[0]; // -1 for handles that are free
+    private int[] handleOfSlot = new int[0];
+    private final IntArray freeHandles = new IntArray();
+    private int handleCount; // Number of handles ever given out
+
+    /**
+     * Adds an entity at the end of the store, growing the arrays if needed.
+     * The subclass fills in the fields of the returned slot.
+     *
+     * @return The slot of the new entity.
+     */
+    protected int allocate() {
+        if (size == capacity) {
+            capacity = Math.max(INITIAL_CAPACITY, capacity * 2);
+            handleOfSlot = Arrays.copyOf(handleOfSlot, capacity);
+            resize(capacity);
+        }
+        int handle;
+        if (freeHandles.size > 0) {
+            handle = freeHandles.pop();
+        } else {
+            handle = handleCount++;
+            if (handle == slotOfHandle.length) {
+                slotOfHandle = Arrays.copyOf(slotOfHandle, Math.max(INITIAL_CAPACITY, handle * 2));
+            }
+        }
+        int slot = size++;
+        slotOfHandle[handle] = slot;
+        handleOfSlot[slot] = handle;
+        return slot;
+    }
+
+    /**
+     * Removes an entity by moving the last entity into its slot.
+     *
+     * @param handle The handle of the entity.
+     */
+    public void remove(int handle) {
+        int slot = getSlot(handle);
+        if (slot < 0) {
+            return;
+        }
+        int last = size - 1;
+        if (slot != last) {
+            copy(last, slot);
+            int moved = handleOfSlot[last];
+            handleOfSlot[slot] = moved;
+            slotOfHandle[moved] = slot;
+        }
+        slotOfHandle[handle] = -1;
+        freeHandles.add(handle);
+        size--;
+    }
+
+    /**
+     * Removes all entities. Handles given out before are no longer valid.
+     */
+    public void clear() {
+        size = 0;
+        handleCount = 0;
+        freeHandles.clear();
+    }
+
+    /**
+     * Gets the current slot of an entity.
+     *
+     * @param handle The handle of the entity.
+     * @return The slot, or -1 if the entity has been removed.
+     */
+    public int getSlot(int handle) {
+        return handle >= 0 && handle < handleCount ? slotOfHandle[handle] : -1;
+    }
+
+    /**
+     * Gets the handle of the entity in a slot.
+     *
+     * @param slot The slot, from 0 to {@link #size()} - 1.
+     * @return The handle of the entity.
+     */
+    public int getHandle(int slot) {
+        return handleOfSlot[slot];
+    }
+
+    /**
+     * Gets the number of entities in the store.
+     *
+     * @return The number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grows every field array of the subclass to the given capacity, keeping the existing values.
+     *
+     * @param capacity The new number of slots.
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Copies every field of one slot into another.
+     *
+     * @param from The slot to copy from.
+     * @param to   The slot to copy to.
+     */
+    protected abstract void copy(int from, int to);
+}
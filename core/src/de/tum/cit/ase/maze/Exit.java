@@ -1,9 +1,7 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 
@@ -12,9 +10,8 @@
  * It extends the GameObject class and provides methods for rendering and updating the exit.
  */
 public class Exit extends GameObject{
-//    private Texture textureExit;
-    private Sprite spriteExitClosed;
-    private Sprite spriteExitOpen;
+    private TextureRegion spriteExitClosed;
+    private TextureRegion spriteExitOpen;
 
     private boolean closed;
 
@@ -28,15 +25,23 @@ public class Exit extends GameObject{
      public Exit(Vector2 position) {
         super(position);
         this.stateTime = 0.0f;
-         super.texture = new Texture(Gdx.files.internal("things.png"));
-
-         // Initialize the sprite for this trap
-         this.spriteExitClosed = new Sprite(texture,0,0,16,16);
-         // Initialize the sprite for the open exit
-         this.spriteExitOpen = new Sprite(texture,0,48,16,16);
-
          this.closed = true;
      }
+
+    /**
+     * Loads the exit's sprites on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
+        }
+        super.texture = Assets.acquire(Assets.THINGS);
+
+        // Use the shared region for the closed exit
+        this.spriteExitClosed = Assets.region(Assets.THINGS, 0, 0, 16, 16);
+        // Use the shared region for the open exit
+        this.spriteExitOpen = Assets.region(Assets.THINGS, 0, 48, 16, 16);
+    }
     /**
      * Updates the exit based on the elapsed time.
      *
@@ -58,6 +63,7 @@ public void update(float deltaTime) {
      */
 
     public void render(SpriteBatch spriteBatch, float x, float y) {
+        loadGraphics();
         if (closed) {
 
             spriteBatch.draw(spriteExitClosed, x, y);
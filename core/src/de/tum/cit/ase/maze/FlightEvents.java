@@ -0,0 +1,141 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * The FlightEvents class holds the Java Flight Recorder events the game emits, so that hitches can be
+ * correlated with garbage collections and allocations in JDK Mission Control. The events cost nothing
+ * while no recording is running; a recording is started with the {@code --jfr} option of the desktop
+ * launcher or with {@code -XX:StartFlightRecording}.
+ */
+public final class FlightEvents {
+    private static final String CATEGORY = "Maze Runner";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Reading a maze file and indexing its grid, recorded by {@link Maze}.
+     */
+    @Name("de.tum.cit.ase.maze.MazeLoad")
+    @Label("Maze Load")
+    @Category(CATEGORY)
+    @Description("Reading a maze file and indexing its cells")
+    @StackTrace(false)
+    public static class MazeLoad extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Width")
+        public int width;
+
+        @Label("Height")
+        public int height;
+
+        @Label("Cells")
+        public long cells;
+
+        @Label("Entities")
+        public int entities;
+
+        @Label("File Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    /**
+     * One rendered frame with the time spent in each {@link FrameProfiler} phase, recorded by {@link FrameProfiler}.
+     */
+    @Name("de.tum.cit.ase.maze.FrameTick")
+    @Label("Frame Tick")
+    @Category(CATEGORY)
+    @Description("A rendered frame and the time spent in each of its phases")
+    @StackTrace(false)
+    public static class FrameTick extends Event {
+        @Label("Input")
+        @Timespan
+        public long input;
+
+        @Label("Collision")
+        @Timespan
+        public long collision;
+
+        @Label("Enemy AI")
+        @Timespan
+        public long enemyAi;
+
+        @Label("Pathfinding")
+        @Timespan
+        public long pathfinding;
+
+        @Label("Maze Render")
+        @Timespan
+        public long mazeRender;
+
+        @Label("Sprites")
+        @Timespan
+        public long sprites;
+
+        @Label("HUD")
+        @Timespan
+        public long hud;
+    }
+
+    /**
+     * A single frame phase that took longer than {@link FrameProfiler#SPIKE_NANOS}, recorded by {@link FrameProfiler}.
+     */
+    @Name("de.tum.cit.ase.maze.PhaseSpike")
+    @Label("Phase Spike")
+    @Category(CATEGORY)
+    @Description("A frame phase, such as collision checks or pathfinding, that took unusually long")
+    public static class PhaseSpike extends Event {
+        @Label("Phase")
+        public String phase;
+
+        @Label("Phase Time")
+        @Timespan
+        public long time;
+    }
+
+    /**
+     * The time from choosing a maze to the first frame of its game, recorded by {@link MazeRunnerGame}.
+     */
+    @Name("de.tum.cit.ase.maze.FirstFrame")
+    @Label("First Frame")
+    @Category(CATEGORY)
+    @Description("Time from choosing a maze to the first rendered frame of its game")
+    @StackTrace(false)
+    public static class FirstFrame extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Time To First Frame")
+        @Timespan
+        public long time;
+    }
+
+    /**
+     * A switch between two screens, recorded by the {@code goTo} methods of {@link MazeRunnerGame}.
+     * The duration includes creating the new screen and disposing the old one.
+     */
+    @Name("de.tum.cit.ase.maze.ScreenTransition")
+    @Label("Screen Transition")
+    @Category(CATEGORY)
+    @Description("Switching from one screen to another")
+    @StackTrace(false)
+    public static class ScreenTransition extends Event {
+        @Label("From")
+        public String from;
+
+        @Label("To")
+        public String to;
+    }
+}
@@ -0,0 +1,156 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+
+
+/**
+ * The FlowField class stores the walking distance from every cell near the player to the player's cell.
+ * It is filled by a breadth-first search over the free cells of the maze, limited to a maximum depth,
+ * and only recomputed when the player moves into another cell. Any number of chasing enemies can then
+ * look up their next step in constant time, so the cost per frame does not grow with the number of enemies.
+ * <p>
+ * Cells are stamped with the generation of the search that reached them, so a new search never has
+ * to clear the arrays of the previous one. A search never gets farther than the maximum depth from the target,
+ * so the arrays only cover the square of that radius around it, whatever the size of the maze.
+ */
+public class FlowField {
+    private static final int[] NEIGHBOUR_X = {1, -1, 0, 0};
+    private static final int[] NEIGHBOUR_Y = {0, 0, 1, -1};
+
+    private final Maze maze;
+    private final int width;
+    private final int height;
+    private final int maxDepth;
+    private final int side; // Side length of the square around the target covered by the arrays
+    private int originX; // Bottom-left cell of that square
+    private int originY;
+    private final int[] distances; // Index (x - originX) * side + (y - originY), valid only where the stamp matches
+    private final int[] stamps; // Generation of the search that last reached each cell
+    private final int[] queue;
+    private int generation;
+    private int targetX = -1;
+    private int targetY = -1;
+
+    /**
+     * Constructs a new FlowField for the given maze.
+     *
+     * @param maze     The maze whose walls block the search.
+     * @param maxDepth The maximum walking distance, in cells, covered by the field.
+     */
+    public FlowField(Maze maze, int maxDepth) {
+        this.maze = maze;
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        this.maxDepth = maxDepth;
+        this.side = 2 * maxDepth + 1;
+        this.distances = new int[side * side];
+        this.stamps = new int[side * side];
+        this.queue = new int[side * side];
+    }
+
+    /**
+     * Recomputes the field if the target has moved into another cell.
+     *
+     * @param targetPosition The position of the target, usually the player.
+     * @return True if the field was recomputed, false if the target is still in the same cell.
+     */
+    public boolean update(Vector2 targetPosition) {
+        int x = Maze.cellOf(targetPosition.x);
+        int y = Maze.cellOf(targetPosition.y);
+        if (x == targetX && y == targetY) {
+            return false;
+        }
+        targetX = x;
+        targetY = y;
+        search(x, y);
+        return true;
+    }
+
+    /**
+     * Fills the field by a breadth-first search from the given cell.
+     *
+     * @param startX The x-coordinate of the start cell.
+     * @param startY The y-coordinate of the start cell.
+     */
+    private void search(int startX, int startY) {
+        generation++;
+        if (startX < 0 || startX >= width || startY < 0 || startY >= height) {
+            return; // Nothing of the maze is reachable from outside
+        }
+        originX = startX - maxDepth;
+        originY = startY - maxDepth;
+        int head = 0;
+        int tail = 0;
+        int start = maxDepth * side + maxDepth;
+        stamps[start] = generation;
+        distances[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int index = queue[head++];
+            int distance = distances[index];
+            if (distance == maxDepth) {
+                continue;
+            }
+            int x = originX + index / side;
+            int y = originY + index % side;
+            for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+                int nx = x + NEIGHBOUR_X[i];
+                int ny = y + NEIGHBOUR_Y[i];
+                if (maze.isWall(nx, ny)) {
+                    continue; // Also covers cells outside the maze
+                }
+                int next = (nx - originX) * side + ny - originY; // Within the square, the neighbour is at most maxDepth away
+                if (stamps[next] != generation) {
+                    stamps[next] = generation;
+                    distances[next] = distance + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the walking distance from a cell to the target's cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The distance in cells, or -1 if the cell is not reachable within the maximum depth.
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height
+                || x < originX || x >= originX + side || y < originY || y >= originY + side) {
+            return -1;
+        }
+        int index = (x - originX) * side + y - originY;
+        return stamps[index] == generation ? distances[index] : -1;
+    }
+
+    /**
+     * Finds the next waypoint on the shortest path from a position to the target.
+     * The waypoint is the bottom-left corner of the neighbouring cell that is one step closer to the target,
+     * or of the current cell if the target is already in it.
+     *
+     * @param position The position of the moving object.
+     * @param waypoint Receives the position of the waypoint.
+     * @return True if a waypoint was found, false if the target is not reachable from the position.
+     */
+    public boolean nextWaypoint(Vector2 position, Vector2 waypoint) {
+        int x = Maze.cellOf(position.x);
+        int y = Maze.cellOf(position.y);
+        int distance = getDistance(x, y);
+        if (distance < 0) {
+            return false;
+        }
+        if (distance > 0) {
+            for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+                if (getDistance(x + NEIGHBOUR_X[i], y + NEIGHBOUR_Y[i]) == distance - 1) {
+                    x += NEIGHBOUR_X[i];
+                    y += NEIGHBOUR_Y[i];
+                    break;
+                }
+            }
+        }
+        waypoint.set(x * Maze.CELL_SIZE, y * Maze.CELL_SIZE);
+        return true;
+    }
+}
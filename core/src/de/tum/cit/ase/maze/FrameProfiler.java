@@ -0,0 +1,175 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Arrays;
+
+
+/**
+ * The FrameProfiler class measures how long the phases of each frame take. Code around a phase calls
+ * {@link #begin()} and {@link #end(int, long)}; while the profiler is disabled, {@code begin} returns 0
+ * without reading the clock and {@code end} ignores it, so the instrumentation costs one branch per phase.
+ * <p>
+ * The profiler does not draw anything, so it can also time a {@link World} without a display;
+ * {@link PerformanceOverlay} shows its numbers in the game. While a flight recording is running, the profiler
+ * also measures, whether enabled or not, and emits a {@link FlightEvents.FrameTick} event per frame and a
+ * {@link FlightEvents.PhaseSpike} event for every phase longer than {@link #SPIKE_NANOS}.
+ */
+public class FrameProfiler {
+    // Phases of a frame
+    public static final int INPUT = 0;
+    public static final int COLLISION = 1;
+    public static final int ENEMY_AI = 2;
+    public static final int PATHFINDING = 3;
+    public static final int MAZE_RENDER = 4;
+    public static final int SPRITES = 5;
+    public static final int HUD = 6;
+    public static final int PHASE_COUNT = 7;
+    private static final String[] PHASE_NAMES = {"Input", "Collision", "Enemy AI", "Pathfinding", "Maze render", "Sprites", "HUD"};
+
+    public static final long SPIKE_NANOS = 4_000_000L; // Phases longer than a quarter of a 60 FPS frame are recorded
+    private static final int FRAME_HISTORY = 256; // Frames kept for the frame time percentiles
+
+    private boolean enabled;
+    private boolean recording; // True while a flight recording asks for frame events
+    private boolean measuring; // True if enabled or recording
+    private final long[] phaseNanos = new long[PHASE_COUNT]; // Time spent in each phase since the last reset
+    private final long[] framePhaseNanos = new long[PHASE_COUNT]; // Time spent in each phase in the current frame
+    private FlightEvents.FrameTick frameEvent = new FlightEvents.FrameTick(); // Event of the current frame
+    private boolean frameEventStarted;
+    private final long[] frameNanos = new long[FRAME_HISTORY];
+    private final long[] sortedFrameNanos = new long[FRAME_HISTORY];
+    private int frameCount; // Frames since the last reset
+    private long totalFrames;
+    private long frameStart;
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return The start time to pass to {@link #end(int, long)}, or 0 if the profiler is disabled.
+     */
+    public long begin() {
+        return measuring ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stops timing a phase. A phase may run several times per frame, its times add up.
+     *
+     * @param phase The phase, one of the phase constants.
+     * @param start The value returned by {@link #begin()}.
+     */
+    public void end(int phase, long start) {
+        if (start != 0L) {
+            long elapsed = System.nanoTime() - start;
+            phaseNanos[phase] += elapsed;
+            framePhaseNanos[phase] += elapsed;
+            if (recording && elapsed > SPIKE_NANOS) {
+                FlightEvents.PhaseSpike spike = new FlightEvents.PhaseSpike();
+                spike.phase = PHASE_NAMES[phase];
+                spike.time = elapsed;
+                spike.commit();
+            }
+        }
+    }
+
+    /**
+     * Marks the start of a new frame and records the length of the previous one.
+     */
+    public void frame() {
+        recording = frameEvent.isEnabled();
+        measuring = enabled || recording;
+        if (!measuring) {
+            frameStart = 0L;
+            frameEventStarted = false;
+            return;
+        }
+        long now = System.nanoTime();
+        if (frameStart != 0L && enabled) {
+            frameNanos[(int) (totalFrames++ % FRAME_HISTORY)] = now - frameStart;
+            frameCount++;
+        }
+        if (frameEventStarted) {
+            commitFrameEvent();
+        }
+        frameStart = now;
+        Arrays.fill(framePhaseNanos, 0L);
+        frameEventStarted = recording;
+        if (recording) {
+            frameEvent.begin();
+        }
+    }
+
+    /**
+     * Ends the event of the frame that has just been drawn and records it with its phase times.
+     */
+    private void commitFrameEvent() {
+        frameEvent.end();
+        if (frameEvent.shouldCommit()) {
+            frameEvent.input = framePhaseNanos[INPUT];
+            frameEvent.collision = framePhaseNanos[COLLISION];
+            frameEvent.enemyAi = framePhaseNanos[ENEMY_AI];
+            frameEvent.pathfinding = framePhaseNanos[PATHFINDING];
+            frameEvent.mazeRender = framePhaseNanos[MAZE_RENDER];
+            frameEvent.sprites = framePhaseNanos[SPRITES];
+            frameEvent.hud = framePhaseNanos[HUD];
+            frameEvent.commit();
+            frameEvent = new FlightEvents.FrameTick(); // A committed event is not reused
+        }
+    }
+
+    /**
+     * Clears the phase times collected since the last reset. The frame time history is kept.
+     */
+    public void reset() {
+        Arrays.fill(phaseNanos, 0L);
+        frameCount = 0;
+    }
+
+    /**
+     * Gets the average time spent in a phase per frame since the last reset.
+     *
+     * @param phase The phase, one of the phase constants.
+     * @return The average time in nanoseconds.
+     */
+    public long getPhaseNanos(int phase) {
+        return frameCount == 0 ? phaseNanos[phase] : phaseNanos[phase] / frameCount;
+    }
+
+    /**
+     * Gets a percentile of the recent frame times.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The frame time in nanoseconds, 0 if no frames have been recorded yet.
+     */
+    public long getFrameNanosPercentile(float percentile) {
+        int count = (int) Math.min(totalFrames, FRAME_HISTORY);
+        if (count == 0) {
+            return 0L;
+        }
+        System.arraycopy(frameNanos, 0, sortedFrameNanos, 0, count);
+        Arrays.sort(sortedFrameNanos, 0, count);
+        int index = Math.min(count - 1, (int) Math.ceil(percentile / 100f * count) - 1);
+        return sortedFrameNanos[Math.max(0, index)];
+    }
+
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the measurements on or off. Turning them on starts a fresh frame time history.
+     *
+     * @param enabled True to measure, false to skip all measurements.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            totalFrames = 0;
+            frameStart = 0L;
+            reset();
+        }
+        this.enabled = enabled;
+        this.measuring = enabled || recording;
+    }
+}
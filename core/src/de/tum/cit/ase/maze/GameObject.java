@@ -2,16 +2,18 @@
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 
 /**
  * The GameObject class represents a generic object in the game world.
  * It serves as a base class for more specific game objects and provides common functionality.
+ * Subclasses load their textures on first render, so game objects can be created and simulated
+ * without an OpenGL context, see {@link World}.
  */
 public abstract class GameObject {
     protected Vector2 position;
+    protected final Vector2 previousPosition = new Vector2(); // Position at the start of the current simulation tick
     protected Texture texture; // Texture for rendering the game object
 
     /**
@@ -21,7 +23,6 @@ public abstract class GameObject {
      */
     public GameObject(Vector2 position) {
         this.position = position;
-        this.texture = texture;
     }
 
 
@@ -61,12 +62,42 @@ public void setPosition(Vector2 position) {
         this.position = position;
     }
 
+    /**
+     * Remembers the current position as the position at the start of a simulation tick.
+     * Called before every tick, so that rendering can interpolate between two ticks.
+     */
+    public void savePosition() {
+        previousPosition.set(position);
+    }
+
+    /**
+     * Gets the x-coordinate at which to draw the game object between two simulation ticks.
+     *
+     * @param alpha The fraction of the tick that has passed, from 0 to 1.
+     * @return The interpolated x-coordinate.
+     */
+    public float getRenderX(float alpha) {
+        return previousPosition.x + (position.x - previousPosition.x) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate at which to draw the game object between two simulation ticks.
+     *
+     * @param alpha The fraction of the tick that has passed, from 0 to 1.
+     * @return The interpolated y-coordinate.
+     */
+    public float getRenderY(float alpha) {
+        return previousPosition.y + (position.y - previousPosition.y) * alpha;
+    }
+
     /**
      * Disposes of resources used by the game object.
+     * The shared texture is released back to the {@link Assets} registry rather than destroyed.
      */
     public void dispose() {
         if (texture != null) {
-            texture.dispose();
+            Assets.release(texture);
+            texture = null;
         }
     }
 }
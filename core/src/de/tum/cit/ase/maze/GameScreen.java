@@ -6,23 +6,28 @@
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
- * It handles the game logic and rendering of the game elements.
+ * The game logic lives in a {@link World}; this screen feeds it the keyboard input in fixed ticks,
+ * draws its state and plays the sounds for the events it reports.
  */
 public class GameScreen implements Screen {
+    private static final float TICK = World.TICK; // Length of a simulation tick in seconds
+    private static final float MAX_FRAME_TIME = 0.25f; // Longest frame the simulation catches up on
+
     private final MazeRunnerGame game;
     private final OrthographicCamera camera;
     private final BitmapFont font;
@@ -30,28 +35,31 @@ public class GameScreen implements Screen {
     private OrthographicCamera hudCamera;
     private SpriteBatch hudSpriteBatch;
 
-    private AudioManager audioManager;
+    private final AudioManager audioManager;
+    private final World world;
     private Player player;
 
     private IntelligentEnemy yovuz;
 
-    private float glitchTimer = 0f;
-    private float winInterval = 0.5f;
-    private boolean playerDamage = false;
-
     private Maze maze;
+    private MazeRenderer mazeRenderer;
 
     private Stage stage;
 
-    private int cellSize = 16; // Adjust the cell size as needed
+    private int cellSize = Maze.CELL_SIZE; // Size of each cell in pixels
     private boolean paused = false;
-    private Array<Wall> walls;
-    private Array<Trap> traps;
-    private Array<Enemy> enemies;
-    private Array<Exit> exits;
+    private EnemyStore enemies;
     private Key key;
 
-    private Sprite heartTextureRegion;
+    private Texture hudTexture;
+    private TextureRegion heartTextureRegion;
+    private final String playerLabel; // HUD label, built once instead of every frame
+    private float accumulator; // Simulation time not yet consumed by ticks
+    private final FrameProfiler profiler;
+    private final PerformanceOverlay performanceOverlay; // Frame timings, toggled with F3
+    private Replay.Playback playback; // Input of a replayed game, null while the player plays
+    private Replay recording; // Input of the current game, null unless games are recorded
+    private boolean cheated; // Games won with a cheat or in a replay do not get a high score
 
 
     /**
@@ -63,6 +71,12 @@ public GameScreen(MazeRunnerGame game) {
 
         this.game = game;
 
+        // Use the audio manager of the game and create the world from the maze of the game first,
+        // so that nothing needs to be disposed if the maze cannot be played
+        this.audioManager = game.getAudioManager();
+        this.maze = game.getMaze();
+        this.world = createWorld(game.getReplay());
+
         // Create and configure the camera for the game view
         camera = new OrthographicCamera();
         camera.setToOrtho(false);
@@ -76,83 +90,23 @@ public GameScreen(MazeRunnerGame game) {
         stage = new Stage(stageViewport);
         Gdx.input.setInputProcessor(stage);
 
-        // Initialize audio manager, player, walls, enemies, traps, and exits
-        this.audioManager = new AudioManager();
-        this.player = new Player(new Vector2());
-        this.walls = new Array<Wall>();
-        this.enemies = new Array<Enemy>();
-        this.traps = new Array<Trap>();
-        this.exits = new Array<Exit>();
-
-        // Get the maze from the game
-        this.maze = game.getMaze();
-
-        // Initialize the player and game elements based on maze cells
-        initializePlayer(maze);
-
-        // Loop through maze cells and initialize game elements
-        for (int x = 0; x < maze.getWidth(); x++) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                Cell cell = maze.getCell(x, y);
-                if (cell != null) {
-                    // Calculate position for rendering based on cell size
-                    float cellX = x * cellSize;
-                    float cellY = y * cellSize;
-
-                    switch (cell.getType()) {
-                        case 0:
-                        case 6:
-                            Wall temp = cell.getWall();
-                            if (cell.getType() == 6) {
-                                temp.setBackWall(true);
-                            }
-                            temp.position.set(cellX, cellY);
-                            walls.add(temp);
-                            break;
-
-                        case 2:
-                            Exit exit = cell.getExit();
-                            exit.position.set(cellX, cellY);
-                            exits.add(exit);
-                            break;
-
-                        case 3:
-                            Trap trap = cell.getTrap();
-                            trap.position.set(cellX, cellY);
-                            traps.add(trap);
-                            break;
-
-                        case 4:
-                            Enemy enemy = cell.getEnemy();
-                            enemy.position.set(cellX, cellY);
-                            enemies.add(enemy);
-                            break;
-
-                        case 5:
-                            key = cell.getKey();
-                            key.setPosition(new Vector2(cellX, cellY));
-                            break;
-
-                        default:
-                            break;
-                    }
-                    // Add a wall near the player, in case entry is rendered on the corner
-                    walls.add(new Wall(new Vector2(player.getPosition().x-16,player.getPosition().y)));
-                }
-
-            }
-        }
-
-        // Initialize Yovuz based on key's position
-        this.yovuz = new IntelligentEnemy(new Vector2(key.getPosition().x,key.getPosition().y));
+        this.player = world.getPlayer();
+        this.yovuz = world.getYovuz();
+        this.enemies = world.getEnemies();
+        this.key = world.getKey();
 
+        this.mazeRenderer = new MazeRenderer(maze, world.getTraps(), cellSize);
+        this.profiler = world.getProfiler();
+        this.performanceOverlay = new PerformanceOverlay(profiler, world.getPathfinder(), font);
 
         // Load HUD textures
-        Texture spriteSheet = new Texture(Gdx.files.internal("objects.png"));
-        heartTextureRegion = new Sprite(spriteSheet, 16*4, 0, 16,16);
+        hudTexture = Assets.acquire(Assets.OBJECTS);
+        heartTextureRegion = Assets.region(Assets.OBJECTS, 16*4, 0, 16,16);
 
-        // Cheating with player's name
-        player.cheating(game.getPlayerName());
+        // Cheating with player's name, a replay starts with the recorded lives instead
+        cheated = playback != null || player.cheating(game.getPlayerName());
+        startRecording();
+        playerLabel = "PLAYER: " + game.getPlayerName();
 
         // Create a camera and sprite batch for the HUD
         hudCamera = new OrthographicCamera();
@@ -161,25 +115,103 @@ public GameScreen(MazeRunnerGame game) {
     }
 
     /**
-     * Renders the game screen and handles game logic.
+     * Creates the world, either for the player to play or for a replay of a recorded game.
+     *
+     * @param replay The recorded game to play back, or null to let the player play.
+     * @return The new world.
+     */
+    private World createWorld(Replay replay) {
+        if (replay != null) {
+            try {
+                World replayed = replay.createWorld(maze);
+                playback = replay.new Playback();
+                return replayed;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error starting replay: " + e.getMessage());
+            }
+        }
+        return new World(maze);
+    }
+
+    /**
+     * Starts recording the input of the game if the game records replays.
+     */
+    private void startRecording() {
+        if (game.getRecordingDirectory() != null) {
+            recording = new Replay(game.getMazePath(), world);
+        }
+    }
+
+    /**
+     * Saves the input recorded so far, unless nothing has been played yet.
+     */
+    private void saveRecording() {
+        if (recording == null || recording.getTicks() == 0) {
+            return;
+        }
+        recording.finish(world);
+        Path path = game.getRecordingDirectory().resolve(recording.getFileName());
+        try {
+            recording.write(path);
+            System.out.println("Saved replay " + path);
+        } catch (IOException e) {
+            System.out.println("Error saving replay: " + e.getMessage());
+        }
+        recording = null;
+    }
+
+    /**
+     * Renders the game screen and advances the game logic.
+     * The game logic runs in fixed ticks of {@link #TICK} seconds, as many as the elapsed time allows,
+     * and the moving objects are drawn between their positions of the last two ticks.
      *
      * @param delta The time passed since the last frame (in seconds).
      */
     @Override
     public void render(float delta) {
+        profiler.frame();
+        long start = profiler.begin();
 
         // Check for escape key press to go back to the Main menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE )) {
             game.goToMenu();
         }
 
-        if (glitchTimer==0){
-            playerDamage = player.isCollidingWithEnemies(player.getPosition(),enemies,yovuz,delta) || player.isCollidingWithTraps(player.getPosition(),traps,delta);
+        // Check if the spacebar is pressed to pause the game
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+            paused = true; // Pause the game when the spacebar is pressed
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE)) {
+            paused = false; // Resume the game when Backspace is pressed
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            performanceOverlay.toggle();
+        }
+        profiler.end(FrameProfiler.INPUT, start);
+
+        // Run the simulation in fixed ticks, dropping time after long stalls instead of catching up
+        if (!paused) {
+            accumulator += Math.min(delta, MAX_FRAME_TIME);
+            audioManager.setListener(player.getPosition().x, player.getPosition().y);
+            while (accumulator >= TICK && !world.isOver()) {
+                start = profiler.begin();
+                int input = playback != null && !playback.isFinished() ? playback.next() : readInput();
+                if (recording != null) {
+                    recording.record(input);
+                }
+                profiler.end(FrameProfiler.INPUT, start);
+                world.step(TICK, input);
+                postSounds(world.getEvents());
+                accumulator -= TICK;
+            }
+            if (world.isWon()) {
+                paused = true;
+            }
+        }
+        float alpha = accumulator / TICK;
 
         ScreenUtils.clear(0, 0, 0, 1); // Clear the screen
 
-        camera.position.set(player.getPosition().x, player.getPosition().y, 0);
+        camera.position.set(player.getRenderX(alpha), player.getRenderY(alpha), 0);
         camera.update(); // Update the camera
 
         // Set up and begin drawing with the sprite batch
@@ -189,56 +221,31 @@ public void render(float delta) {
 
         sinusInput += delta;
 
-        // Check if the spacebar is pressed to pause the game
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            paused = true; // Pause the game when the spacebar is pressed
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE)) {
-            paused = false; // Resume the game when Backspace is pressed
-        }
-
         // Check if the game is not paused
         if (!paused) {
             if (!player.playerLost()) {
                 // Render the maze and game elements
+                start = profiler.begin();
                 mazeRender(maze,game.getSpriteBatch(),cellSize);
-                yovuz.render(game.getSpriteBatch(),delta);
-                update(delta);
-
-                // Play a sound effect if the player takes damage
-                if (playerDamage){
-                    audioManager.playLifeLostSound();
-                }
-
-                //Play a Ghost sound if Intelligent enemy detects Player and starts following
-                if (yovuz.checker()) {
-                    audioManager.playGhostSound();
-                }
-
-                // Check if the player has won and trigger victory sound
-                if (player.playerWon(player.getPosition(),exits)) {
-                    winInterval-=delta;
-                    if (winInterval<=0){
-                        audioManager.playVictorySound();
-                        paused=true;
-                    }
-                }
-
-                // Handle player input for movement
-                handleInput(delta);
+                profiler.end(FrameProfiler.MAZE_RENDER, start);
+                start = profiler.begin();
+                yovuz.render(game.getSpriteBatch(),alpha);
+                enemies.render(game.getSpriteBatch(),camera,alpha);
+                renderPlayer(alpha);
+                profiler.end(FrameProfiler.SPRITES, start);
             }else  {
 
                 // Go to the lose menu if the player has lost
                 game.goToloseMenu();
-                audioManager.playGameOverSound();
             }
         }
 
 
         // Check if the game is paused
         if (paused) {
-            if (player.playerWon(player.getPosition(),exits)) {
-                // Go to the won menu if the player has won
-                game.goToWonMenu();
+            if (world.isWon() || world.isPlayerAtOpenExit()) {
+                // Go to the won menu if the player has won, with the time of the game for the high scores
+                game.goToWonMenu(world.isWon() && !cheated ? (int) world.getTicks() : 0);
             } else {
                 // Update and draw the stage (buttons) for the pause menu
                 stage.act(); // Update the stage
@@ -248,6 +255,7 @@ public void render(float delta) {
         game.getSpriteBatch().end(); // Important to call this after drawing everything
 
         // Set up and begin drawing with the sprite batch for the HUD
+        start = profiler.begin();
         hudSpriteBatch.setProjectionMatrix(hudCamera.combined);
         hudCamera.position.set(player.getPosition(), 0);
         hudCamera.zoom=0.2f;
@@ -256,7 +264,77 @@ public void render(float delta) {
         // Render HUD elements here
         // For example, you can use hudSpriteBatch to draw HUD components
         renderHUD();
+        profiler.end(FrameProfiler.HUD, start);
+        performanceOverlay.render(hudSpriteBatch);
         hudSpriteBatch.end();
+        performanceOverlay.update(delta, game.getSpriteBatch(), hudSpriteBatch);
+
+        game.reportFirstFrame(); // Reports the load time once, after the first frame of a new level
+    }
+
+    /**
+     * Reads the arrow keys as input for the world. Holding the spacebar keeps the player still.
+     *
+     * @return The pressed directions as a combination of the {@code World.INPUT_} flags.
+     */
+    private int readInput() {
+        if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+            return 0;
+        }
+        int input = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.UP)) input |= World.INPUT_UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) input |= World.INPUT_DOWN;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) input |= World.INPUT_LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) input |= World.INPUT_RIGHT;
+        return input;
+    }
+
+    /**
+     * Posts the sounds for the events of a tick. The audio manager plays them after the frame has been drawn.
+     *
+     * @param events The events as a combination of the {@code World.EVENT_} flags.
+     */
+    private void postSounds(int events) {
+        // Play a sound effect if the player takes damage
+        if ((events & World.EVENT_LIFE_LOST) != 0) {
+            audioManager.post(AudioManager.LIFE_LOST);
+        }
+        //Play a Ghost sound if Intelligent enemy detects Player and starts following
+        if ((events & World.EVENT_GHOST) != 0) {
+            audioManager.post(AudioManager.GHOST, yovuz.getPosition().x, yovuz.getPosition().y);
+        }
+        if ((events & World.EVENT_VICTORY) != 0) {
+            audioManager.post(AudioManager.VICTORY);
+        }
+        if ((events & World.EVENT_KEY_COLLECTED) != 0) {
+            audioManager.post(AudioManager.KEY_COLLECTED);
+            audioManager.post(AudioManager.DOOR_OPENS);
+        }
+        if ((events & World.EVENT_MOVE) != 0) {
+            audioManager.post(AudioManager.MOVE);
+        }
+        if ((events & World.EVENT_HIT) != 0) {
+            audioManager.post(AudioManager.HIT);
+        }
+    }
+
+    /**
+     * Draws the player facing its direction of movement. The player flickers while taking damage.
+     *
+     * @param alpha The fraction of the current simulation tick that has passed, used to interpolate the position.
+     */
+    private void renderPlayer(float alpha) {
+        if (world.isPlayerDamaged()) {
+            return;
+        }
+        TextureRegion frame = switch (world.getPlayerDirection()) {
+            case World.DIRECTION_UP -> player.getCharacterUpAnimation().getKeyFrame(sinusInput);
+            case World.DIRECTION_DOWN -> player.getCharacterDownAnimation().getKeyFrame(sinusInput);
+            case World.DIRECTION_LEFT -> player.getCharacterLeftAnimation().getKeyFrame(sinusInput);
+            case World.DIRECTION_RIGHT -> player.getCharacterRightAnimation().getKeyFrame(sinusInput);
+            default -> player.getSpritePlayer();
+        };
+        game.getSpriteBatch().draw(frame, player.getRenderX(alpha), player.getRenderY(alpha));
     }
 
     /**
@@ -292,8 +370,18 @@ public void clicked(InputEvent event, float x, float y) {
         restartButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                restart();
-                game.setScreen(new GameScreen(game)); // Create a new GameScreen
+                // Restore the starting state in place, the maze, textures and menus are kept
+                saveRecording();
+                world.restart();
+                if (playback != null) {
+                    player.setLives(game.getReplay().getLives());
+                    playback = game.getReplay().new Playback();
+                } else {
+                    cheated = player.cheating(game.getPlayerName());
+                }
+                startRecording();
+                accumulator = 0f;
+                paused = false;
             }
         });
 
@@ -305,37 +393,16 @@ public void clicked(InputEvent event, float x, float y) {
     }
 
     /**
-     * Restarts the game by resetting key, player state, and exit state.
-     */
-    private void restart() {
-        // Restart the game
-        key.setVisible(true);
-        player.setGotKey(false);
-        for (Exit exit : exits) {
-            exit.setClosed(true);
-        }
-        player.setLives(5);
-    }
-
-    /**
-     * Renders the maze using the specified batch and cell size.
+     * Renders the visible part of the maze using the specified batch.
+     * Static tiles come from the chunk caches of the maze renderer, so only the chunks
+     * in the camera's view are drawn.
      *
      * @param maze      The maze to be rendered.
      * @param batch     The sprite batch to render with.
      * @param cellSize  The size of each cell in pixels.
      */
     public void mazeRender(Maze maze, SpriteBatch batch, int cellSize) {
-        for (int x = 0; x < maze.getWidth(); x++) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                Cell cell = maze.getCell(x, y);
-                if (cell != null) {
-                    // Render each cell with the desired size
-                    float cellX = x * cellSize;
-                    float cellY = y * cellSize;
-                    cell.render(batch, cellX, cellY);
-                }
-            }
-        }
+        mazeRenderer.render(camera, batch);
     }
 
     /**
@@ -363,8 +430,8 @@ private void renderHUD() {
                     key.getSpriteKey(),
                     540,
                     795,
-                    key.getSpriteKey().getWidth() * scale,
-                    key.getSpriteKey().getHeight() * scale
+                    key.getSpriteKey().getRegionWidth() * scale,
+                    key.getSpriteKey().getRegionHeight() * scale
             );
         }
 
@@ -372,141 +439,14 @@ private void renderHUD() {
         float oldY = font.getScaleY();
 
         float newScale = 1.2f;
-        String message = "PLAYER: " + game.getPlayerName();
         font.getData().setScale(newScale);
 
-        font.draw(hudSpriteBatch, message, 10, 840);
+        font.draw(hudSpriteBatch, playerLabel, 10, 840);
 
         font.getData().setScale(oldX,oldY);
 
     }
 
-    /**
-     * Updates game elements (e.g., key, enemies, traps, walls, player).
-     *
-     * @param delta The time passed since the last frame (in seconds).
-     */
-    private void update(float delta) {
-        key.update(delta);
-        audioManager.update(delta);
-        for (Enemy enemy : enemies) {
-            enemy.update(delta, exits, walls,traps);
-            enemy.render(game.getSpriteBatch(),delta);
-        }
-        for (Trap trap : traps) {
-            trap.update(delta);
-        }
-        for (Wall wall : walls) {
-            wall.update(delta);
-        }
-
-        player.update(delta);
-        yovuz.update(delta,player.getPosition(),walls);
-    }
-
-    /**
-     * Initializes the player's starting position based on the maze configuration.
-     *
-     * @param maze The maze containing player's initial position.
-     */
-    private void initializePlayer(Maze maze) {
-        for (int x = 0; x < maze.getWidth(); x++) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                Cell cell = maze.getCell(x, y);
-                if (cell != null && cell.getPlayer() != null) {
-                    this.player = cell.getPlayer();
-
-                    this.player.setPosition(new Vector2(x*cellSize,y*cellSize));
-                    break; // Assuming there's only one player in the maze
-                }
-            }
-        }
-    }
-
-    /**
-     * Handles player input and moves the player character.
-     *
-     * @param delta The time passed since the last frame (in seconds).
-     */
-    private void handleInput(float delta) {
-        if (player == null) {
-            return; // Player not initialized
-        }
-
-        float moveAmount = player.getPlayerSpeed() * delta;
-        float deltaX = 0, deltaY = 0;
-        boolean isMoving = false; // Flag to check if the player is moving
-
-        if (playerDamage) {
-            glitchTimer += delta;
-            //
-            float glitchDuration = 0.1f;
-            if (glitchTimer >= glitchDuration) {
-                playerDamage = false; // End glitch effect
-                glitchTimer = 0;
-            }
-        }
-
-        if (!Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
-            if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-                if (!playerDamage) {
-
-                game.getSpriteBatch().draw(player.getCharacterUpAnimation().getKeyFrame(sinusInput),player.getPosition().x,player.getPosition().y);
-                }
-                deltaY = moveAmount;
-                isMoving = true;
-            } else if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-                if (!playerDamage) {
-
-
-                    game.getSpriteBatch().draw(player.getCharacterDownAnimation().getKeyFrame(sinusInput), player.getPosition().x, player.getPosition().y);
-                }
-                deltaY = -moveAmount;
-                isMoving = true;
-            } else if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-                if (!playerDamage) {
-
-                    game.getSpriteBatch().draw(player.getCharacterLeftAnimation().getKeyFrame(sinusInput), player.getPosition().x, player.getPosition().y);
-                }
-                deltaX = -moveAmount;
-                isMoving = true;
-            } else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-                if (!playerDamage) {
-
-                    game.getSpriteBatch().draw(player.getCharacterRightAnimation().getKeyFrame(sinusInput), player.getPosition().x, player.getPosition().y);
-                }
-                deltaX = moveAmount;
-                isMoving = true;
-            }
-
-            if (key.isVisible()&&player.isCollidingWithKey(new Vector2(player.getPosition().x+deltaX,player.getPosition().y+deltaY),key)) {
-                key.setVisible(false);
-                audioManager.playKeyCollectedSound();
-                player.setGotKey(true);
-                for (Exit exit : exits) {
-                    exit.setClosed(false);
-                }
-            }
-
-            // Check if moving in the new direction would cause a collision
-            if (!player.isCollidingWithWalls(new Vector2(player.getPosition().x + deltaX, player.getPosition().y + deltaY), walls) &&
-                    (!player.isCollidingWithExits(new Vector2(player.getPosition().x + deltaX, player.getPosition().y + deltaY), exits))) {
-                // Only move the player if there is no collision
-                player.move(deltaX, deltaY);
-                if (isMoving) {
-                    audioManager.playMoveSound();
-                }
-
-            } else {
-                audioManager.playHitSound();
-            }
-
-                if (!isMoving && !playerDamage) {
-                    game.getSpriteBatch().draw(player.getSpritePlayer(), player.getPosition().x, player.getPosition().y);
-                }
-        }
-    }
-
     /**
      * Called when the screen is resized, adjusting camera and HUD.
      *
@@ -533,10 +473,16 @@ public void show() {
 
     @Override
     public void hide() {
+        saveRecording(); // The game has ended or been left
+        performanceOverlay.setVisible(false); // Stop intercepting OpenGL calls for the other screens
     }
 
     @Override
     public void dispose() {
-        audioManager.dispose();
+        performanceOverlay.dispose();
+        mazeRenderer.dispose();
+        world.dispose(); // Also the player, the enemies and the cells drawn by this screen
+        hudSpriteBatch.dispose();
+        Assets.release(hudTexture);
     }
 }
@@ -0,0 +1,380 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+
+/**
+ * The HighScores class stores the won games of every map: who won, how fast and when.
+ * <p>
+ * Scores are written to an append-only log, one record per won game, so saving a score is a single small write
+ * at the end of the file. Each record ends with a CRC32 of its content; a record cut short by a crash or power loss
+ * is detected when the log is opened and dropped together with everything after it, so the log never has to be
+ * written in place. While the log is opened, the best {@link #TOP_COUNT} scores of each map are kept in a
+ * sorted in-memory {@link Board}; looking up a rank is a binary search. Once the log holds many more records than
+ * the boards, it is compacted to the records still on a board, so that opening it stays fast no matter how many
+ * games are played. The log is stored as follows:
+ * <pre>
+ * magic     4 bytes  "MRHS"
+ * version   int      {@link #VERSION}
+ * records   each: length of the content (int), map, name, ticks (int), won at (long), CRC32 of the content (int)
+ * </pre>
+ * All numbers are big-endian. Strings are stored as their length in bytes (short) and UTF-8 bytes;
+ * a map is identified by the file name of its maze.
+ */
+public class HighScores {
+    public static final int VERSION = 1;
+    public static final int TOP_COUNT = 100; // Scores kept per map
+    private static final byte[] MAGIC = {'M', 'R', 'H', 'S'};
+    private static final int HEADER_SIZE = MAGIC.length + 4;
+    private static final int MAX_RECORD_SIZE = 1024; // Larger lengths can only come from a damaged log
+    private static final int COMPACT_THRESHOLD = 10_000; // Records in the log before compacting is considered
+    private static final int COMPACT_RATIO = 4; // Compact once the log holds this many records per retained one
+
+    /**
+     * The Board class holds the best scores of one map, ordered from fastest to slowest.
+     * Scores with the same time are ordered by when they were won.
+     */
+    public static class Board {
+        private final IntArray ticks = new IntArray();
+        private final Array<String> names = new Array<>();
+        private final LongArray wonAt = new LongArray();
+
+        /**
+         * Gets the rank a game of the given length would have on this board, in O(log n).
+         *
+         * @param ticks The length of the game in ticks.
+         * @return The rank, starting at 1, or 0 if the game would not make it onto the board.
+         */
+        public int rankOf(int ticks) {
+            int rank = upperBound(ticks);
+            return rank < TOP_COUNT ? rank + 1 : 0;
+        }
+
+        /**
+         * Finds the first score that is slower than the given time.
+         *
+         * @param ticks The length of a game in ticks.
+         * @return The index of that score, or the size of the board if there is none.
+         */
+        private int upperBound(int ticks) {
+            int low = 0;
+            int high = this.ticks.size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.ticks.get(middle) <= ticks) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Puts a score in its place on the board, dropping the slowest score if the board is full.
+         *
+         * @return The rank of the score, starting at 1, or 0 if it did not make it onto the board.
+         */
+        private int add(int ticks, String name, long wonAt) {
+            int index = upperBound(ticks);
+            if (index >= TOP_COUNT) {
+                return 0;
+            }
+            this.ticks.insert(index, ticks);
+            this.names.insert(index, name);
+            this.wonAt.insert(index, wonAt);
+            if (this.ticks.size > TOP_COUNT) {
+                this.ticks.pop();
+                this.names.pop();
+                this.wonAt.pop();
+            }
+            return index + 1;
+        }
+
+        public int size() {
+            return ticks.size;
+        }
+
+        public int getTicks(int index) {
+            return ticks.get(index);
+        }
+
+        public String getName(int index) {
+            return names.get(index);
+        }
+
+        public long getWonAt(int index) {
+            return wonAt.get(index);
+        }
+    }
+
+    private final Path path;
+    private final ObjectMap<String, Board> boards = new ObjectMap<>();
+    private final CRC32 crc = new CRC32();
+    private FileChannel log;
+    private long records; // Records in the log
+
+    private HighScores(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the score log, creating it if it does not exist, and builds the boards of all maps from it.
+     * A damaged end of the log is cut off and the log is compacted when it has grown too large.
+     *
+     * @param path The path of the log file.
+     * @return The high scores.
+     * @throws IOException If the log cannot be read or written, or is not a score log of this version.
+     */
+    public static HighScores open(Path path) throws IOException {
+        HighScores scores = new HighScores(path);
+        scores.load();
+        return scores;
+    }
+
+    /**
+     * Reads all records of the log into the boards and opens the log for appending.
+     *
+     * @throws IOException If the log cannot be read or written.
+     */
+    private void load() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() < HEADER_SIZE) {
+            log.truncate(0);
+            log.write(header(), 0);
+        } else {
+            ByteBuffer data = ByteBuffer.allocate((int) Math.min(log.size(), Integer.MAX_VALUE - 8));
+            while (data.hasRemaining() && log.read(data, data.position()) > 0) {
+                // Read the whole log, it is bounded by compaction
+            }
+            data.flip();
+            long valid = readRecords(data);
+            if (valid < log.size()) {
+                System.out.println("Dropping " + (log.size() - valid) + " damaged bytes at the end of " + path);
+                log.truncate(valid);
+            }
+        }
+
+        int retained = 0;
+        for (Board board : boards.values()) {
+            retained += board.size();
+        }
+        if (records > COMPACT_THRESHOLD && records > (long) retained * COMPACT_RATIO) {
+            compact();
+        }
+        log.position(log.size());
+    }
+
+    /**
+     * Parses the records of a log into the boards.
+     *
+     * @param data The whole log.
+     * @return The length of the log up to the end of the last intact record.
+     * @throws IOException If the log is not a score log of this version.
+     */
+    private long readRecords(ByteBuffer data) throws IOException {
+        for (byte b : MAGIC) {
+            if (data.get() != b) {
+                throw new IOException(path + " is not a score log");
+            }
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported score log version " + version + " in " + path);
+        }
+        while (data.remaining() >= 4) {
+            int start = data.position();
+            int length = data.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || data.remaining() < length + 4) {
+                return start;
+            }
+            crc.reset();
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != data.getInt(data.position() + length)) {
+                return start;
+            }
+            String map = readString(data);
+            String name = readString(data);
+            int ticks = data.getInt();
+            long wonAt = data.getLong();
+            data.getInt(); // The checksum
+            board(map).add(ticks, name, wonAt);
+            records++;
+        }
+        return data.position();
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    private static String readString(ByteBuffer data) {
+        int length = data.getShort() & 0xFFFF;
+        String string = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return string;
+    }
+
+    /**
+     * Rewrites the log with only the records that are on a board, replacing the old log in one atomic move.
+     *
+     * @throws IOException If the log cannot be written.
+     */
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        long kept = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(header());
+            for (ObjectMap.Entry<String, Board> entry : boards) {
+                Board board = entry.value;
+                for (int i = 0; i < board.size(); i++) {
+                    out.write(record(entry.key, board.getName(i), board.getTicks(i), board.getWonAt(i)));
+                    kept++;
+                }
+            }
+            out.force(true);
+        }
+        log.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Compacted " + path + " from " + records + " to " + kept + " scores");
+        records = kept;
+        log = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Saves a won game and puts it on the board of its map.
+     *
+     * @param map   The map, see {@link #mapOf(String)}.
+     * @param name  The name of the player.
+     * @param ticks The length of the game in ticks.
+     * @return The rank of the game on the board of the map, starting at 1, or 0 if it is not among the best.
+     * @throws IOException If the score cannot be written. The board is updated anyway.
+     */
+    public int add(String map, String name, int ticks) throws IOException {
+        long wonAt = System.currentTimeMillis();
+        ByteBuffer record = record(map, name, ticks, wonAt);
+        int rank = board(map).add(ticks, name, wonAt);
+        records++;
+        while (record.hasRemaining()) {
+            log.write(record);
+        }
+        return rank;
+    }
+
+    /**
+     * Gets the best scores of a map.
+     *
+     * @param map The map, see {@link #mapOf(String)}.
+     * @return The board, which is empty if the map has never been won.
+     */
+    public Board getBoard(String map) {
+        return board(map);
+    }
+
+    /**
+     * Gets the board of a map, creating an empty one for a new map.
+     */
+    private Board board(String map) {
+        Board board = boards.get(map);
+        if (board == null) {
+            board = new Board();
+            boards.put(map, board);
+        }
+        return board;
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Gets the name scores of a maze are stored under: the file name of the maze, so that a map keeps its scores
+     * wherever the game is installed.
+     *
+     * @param mazePath The path of the maze file.
+     * @return The map name.
+     */
+    public static String mapOf(String mazePath) {
+        return Path.of(mazePath).getFileName().toString();
+    }
+
+    /**
+     * Formats the length of a game for display, e.g. {@code 83.45 s}.
+     *
+     * @param ticks The length of the game in ticks.
+     * @return The formatted time.
+     */
+    public static String formatTime(int ticks) {
+        return String.format("%.2f s", ticks * World.TICK);
+    }
+
+    /**
+     * Writes a string as its length in bytes and its UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Builds the header of a log.
+     */
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    /**
+     * Builds a complete record, so that it is appended with a single write.
+     */
+    private ByteBuffer record(String map, String name, int ticks, long wonAt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // Length, filled in below
+        writeString(out, map);
+        writeString(out, name);
+        out.writeInt(ticks);
+        out.writeLong(wonAt);
+        out.writeInt(0); // Checksum, filled in below
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.limit() - 8;
+        if (length > MAX_RECORD_SIZE) {
+            throw new IOException("The score of " + name + " on " + map + " is too large to store");
+        }
+        crc.reset();
+        crc.update(record.array(), 4, length);
+        record.putInt(0, length).putInt(4 + length, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Closes the log.
+     */
+    public void close() {
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.println("Error closing score log: " + e.getMessage());
+        }
+    }
+}
@@ -1,38 +1,35 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
 
 
 /**
  * The IntelligentEnemy class represents an enemy with advanced movement behavior.
- * It can detect the player, move towards the player, and handle collisions with walls.
+ * It can detect the player and chase it along the shortest path through the maze,
+ * which it reads from a {@link FlowField} shared by all chasing enemies.
  */
 public class IntelligentEnemy extends GameObject {
 
-    private Sprite spriteEnemy;
-    private Sprite spriteEnemySleeping;
+    private TextureRegion spriteEnemy;
+    private TextureRegion spriteEnemySleeping;
     private Animation<TextureRegion> moveAnimation; // Animation for movement
     private final float speed; // Speed at which the enemy moves
     private final float detectionRadius; // Radius to detect the player
-    private Vector2 targetPosition; // Position of the player
+    private final Vector2 waypoint = new Vector2(); // Next cell on the path to the player
+    private final Vector2 direction = new Vector2(); // Reused direction towards the waypoint
+    private boolean hasWaypoint = false;
+    private final Vector2 home; // Position the enemy guards and returns to after losing the player
+    private Pathfinder.Route routeHome; // Route back home, null while chasing
+    private int routeStep;
     private final float moveDuration = 10f; // Adjust this duration as needed
     private float breakDuration = 5f; // Adjust this duration as needed
     private float timer = 0f;
-    private float glitchTimer = 0f;
-    private final float glitchDuration = 0.1f;
     private boolean isMoving = true;
-    private boolean movingThroughObstacle = false;
     private boolean playerDetected = false;
-    private float lastCollisionTime = -2.0f;
 
 
     /**
@@ -43,33 +40,49 @@ public class IntelligentEnemy extends GameObject {
     public IntelligentEnemy(Vector2 position) {
         super(position);
 
-        this.texture = new Texture(Gdx.files.internal("mobs.png"));
-        this.spriteEnemy = new Sprite(texture, 6*16, 4*16, 16, 16);
-        this.spriteEnemySleeping = new Sprite(texture, 6*16, 7*16, 16, 16);
-        // Create key animation
-        Array<TextureRegion> keyFrames = new Array<>();
+        this.speed = 30f;
+        this.detectionRadius = 50f;
+        this.home = new Vector2(position);
+    }
 
+    /**
+     * Puts the enemy back home, asleep to the player and about to move, as when it was constructed.
+     */
+    public void reset() {
+        position.set(home);
+        previousPosition.set(home);
+        hasWaypoint = false;
+        routeHome = null;
+        routeStep = 0;
+        timer = 0f;
+        isMoving = true;
+        playerDetected = false;
+    }
 
-        // Assuming your frames are arranged horizontally in the texture
-        for (int i = 0; i < 3; i++) {
-            keyFrames.add(new TextureRegion(texture, (6 + i)*16, 4*16, 16, 16));
+    /**
+     * Loads the enemy's sprites and move animation on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
         }
+        this.texture = Assets.acquire(Assets.MOBS);
+        this.spriteEnemy = Assets.region(Assets.MOBS, 6*16, 4*16, 16, 16);
+        this.spriteEnemySleeping = Assets.region(Assets.MOBS, 6*16, 7*16, 16, 16);
 
-        moveAnimation = new Animation<>(0.1f, keyFrames);
-        this.speed = 30f;
-        this.detectionRadius = 50f;
-        this.targetPosition = new Vector2();
+        // Shared move animation, frames are arranged horizontally in the texture
+        moveAnimation = Assets.animation(Assets.MOBS, 6*16, 4*16, 16, 16, 3, 0.1f);
     }
     /**
-     * Updates the state of the enemy based on the player's position and surrounding walls.
+     * Updates the state of the enemy based on the player's position.
      *
      * @param deltaTime      The time passed since the last update.
      * @param playerPosition The current position of the player.
-     * @param walls          The array of walls in the game.
+     * @param flowField      The flow field leading to the player's cell.
+     * @param pathfinder     The pathfinder used to find the way back home.
      */
-    public void update(float deltaTime, Vector2 playerPosition, Array<Wall> walls) {
+    public void update(float deltaTime, Vector2 playerPosition, FlowField flowField, Pathfinder pathfinder) {
         timer+=deltaTime;
-        lastCollisionTime += deltaTime;
         // Calculate distance to player
         float distanceToPlayer = position.dst(playerPosition);
 
@@ -78,18 +91,18 @@ public void update(float deltaTime, Vector2 playerPosition, Array<Wall> walls) {
             playerDetected=true;
             if (isMoving) {
 
-                // Set target position as player position
-                targetPosition.set(playerPosition);
-                moveTowardsTarget(deltaTime);
-                if (isCollidingWithWalls(position,walls)) {
-                    movingThroughObstacle=true;
-                }
+                // Follow the shortest path towards the player
+                routeHome = null;
+                followFlowField(deltaTime, flowField);
                 if (timer >= moveDuration) {
                     isMoving = false; // Stop moving after the moveDuration
                     timer = 0f;
                 }
             }
         } else {
+            if (isMoving && !playerDetected) {
+                returnHome(deltaTime, pathfinder);
+            }
             if (timer >= breakDuration) {
                 timer = 0f;
                 isMoving=true;
@@ -109,79 +122,105 @@ public boolean checker() {
 
 
     /**
-     * Moves the enemy towards the target position.
+     * Moves the enemy from cell to cell along the flow field. A new waypoint is only looked up once the
+     * previous one has been reached, so the enemy always moves straight between neighbouring cells
+     * and never cuts the corner of a wall.
      *
      * @param deltaTime The time passed since the last movement update.
+     * @param flowField The flow field leading to the player's cell.
      */
-    private void moveTowardsTarget(float deltaTime) {
-        // Calculate direction towards target
-        Vector2 direction = new Vector2(targetPosition.x - position.x, targetPosition.y - position.y).nor();
-        Vector2 newPosition = new Vector2(position).add(direction.scl(speed * deltaTime));
-
-        position.set(newPosition); // Update position if no collision
+    private void followFlowField(float deltaTime, FlowField flowField) {
+        if (!hasWaypoint) {
+            hasWaypoint = flowField.nextWaypoint(position, waypoint);
+            if (!hasWaypoint) {
+                return; // The player cannot be reached from here
+            }
+        }
+        moveToWaypoint(deltaTime);
     }
 
-
-
     /**
-     * Checks if the enemy is colliding with any walls in the specified array.
+     * Walks back to the home position along a route requested from the pathfinder.
+     * The route may take a few frames to arrive, the enemy waits in place until then.
      *
-     * @param position The current position of the enemy.
-     * @param walls    The array of walls in the game.
-     * @return True if a collision is detected; otherwise, false.
+     * @param deltaTime  The time passed since the last movement update.
+     * @param pathfinder The pathfinder used to find the way back home.
      */
+    private void returnHome(float deltaTime, Pathfinder pathfinder) {
+        if (hasWaypoint) {
+            moveToWaypoint(deltaTime); // Finish the step towards the current cell first
+            return;
+        }
+        if (position.epsilonEquals(home, 0.01f)) {
+            return; // Already home
+        }
+        if (routeHome == null) {
+            routeHome = pathfinder.findPath(Maze.cellOf(position.x), Maze.cellOf(position.y), Maze.cellOf(home.x), Maze.cellOf(home.y));
+            routeStep = 1; // The first cell of the route is the current one
+        }
+        if (!routeHome.isDone()) {
+            return; // Still searching
+        }
+        if (!routeHome.isFound()) {
+            return; // Home cannot be reached from here
+        }
+        if (routeStep < routeHome.getLength()) {
+            waypoint.set(routeHome.getX(routeStep) * Maze.CELL_SIZE, routeHome.getY(routeStep) * Maze.CELL_SIZE);
+            routeStep++;
+        } else {
+            waypoint.set(home); // End of the route
+        }
+        hasWaypoint = true;
+        moveToWaypoint(deltaTime);
+    }
 
-    private boolean isCollidingWithWalls(Vector2 position, Array<Wall> walls) {
-        Rectangle enemyBounds = new Rectangle(position.x, position.y, 12, 12);
-
-        for (Wall wall : walls) {
-            Rectangle wallBounds = new Rectangle(wall.getPosition().x, wall.getPosition().y, 12, 12);
-            if (enemyBounds.overlaps(wallBounds)) {
-
-                if (lastCollisionTime >= 0.03f){
-                    lastCollisionTime = -1.0f; // Reset the timer
-                    return true; // Collision detected
-                }
-            }
+    /**
+     * Moves the enemy straight towards the current waypoint, stopping once it has been reached.
+     *
+     * @param deltaTime The time passed since the last movement update.
+     */
+    private void moveToWaypoint(float deltaTime) {
+        float step = speed * deltaTime;
+        float distance = position.dst(waypoint);
+        if (distance <= step) {
+            position.set(waypoint);
+            hasWaypoint = false;
+        } else {
+            direction.set(waypoint).sub(position).scl(1f / distance);
+            position.mulAdd(direction, step);
         }
-        return false; // No collision
     }
 
 
     /**
-     * Renders the enemy on the screen, applying animations and glitch effects if necessary.
+     * Renders the enemy on the screen, applying animations if necessary.
      *
      * @param batch The SpriteBatch used for rendering.
-     * @param delta The time passed since the last rendering update.
+     * @param alpha The fraction of the current simulation tick that has passed, used to interpolate the position.
      */
-    public void render(SpriteBatch batch,float delta) {
-        if (movingThroughObstacle) {
-             update(delta);
-            if (glitchTimer >= glitchDuration) {
-                  movingThroughObstacle = false; // End glitch effect
-                glitchTimer = 0;
-            }
-        } else {
-            if (isMoving) {
-                if (playerDetected) {
-                    TextureRegion keyFrames = moveAnimation.getKeyFrame(timer,true);
-                    batch.draw(keyFrames,position.x,position.y);
-                } else {
-                    batch.draw(spriteEnemy,position.x,position.y);
-                }
+    public void render(SpriteBatch batch,float alpha) {
+        loadGraphics();
+        float x = getRenderX(alpha);
+        float y = getRenderY(alpha);
+        if (isMoving) {
+            if (playerDetected) {
+                TextureRegion keyFrames = moveAnimation.getKeyFrame(timer,true);
+                batch.draw(keyFrames,x,y);
             } else {
-                batch.draw(spriteEnemySleeping,position.x,position.y);
+                batch.draw(spriteEnemy,x,y);
             }
+        } else {
+            batch.draw(spriteEnemySleeping,x,y);
         }
     }
     /**
-     * Updates the internal state of the enemy over time, including glitch effects.
+     * Updates the internal state of the enemy over time.
+     * The movement depends on the player, see {@link #update(float, Vector2, FlowField, Pathfinder)}.
      *
      * @param deltaTime The time passed since the last update.
      */
     @Override
     public void update(float deltaTime) {
-        glitchTimer += deltaTime;
     }
 
 
@@ -1,13 +1,9 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
 
 /**
@@ -16,7 +12,7 @@
  */
 public class Key extends GameObject{
 
-        private Sprite spriteKey;
+        private TextureRegion spriteKey;
         private Animation<TextureRegion> keyAnimation;
         private float stateTime;
         private boolean isVisible;
@@ -28,27 +24,26 @@ public class Key extends GameObject{
      */
     public Key(Vector2 position) {
             super(position);
-            super.texture = new Texture(Gdx.files.internal("objects.png"));
-
-            // Initialize the sprite for this key
-            this.spriteKey = new Sprite(texture,0,64,16,16);
-            this.spriteKey.setPosition(position.x, position.y);
-
-            // Create key animation
-            Array<TextureRegion> keyFrames = new Array<>();
-            int frameWidth = 16;
-            int frameHeight = 16;
-
-            // Assuming your frames are arranged horizontally in the texture
-            for (int i = 0; i < 4; i++) {
-            keyFrames.add(new TextureRegion(texture, i * frameWidth, 64, frameWidth, frameHeight));
-            }
-
-            keyAnimation = new Animation<>(0.1f, keyFrames);
             stateTime = 0f;
             this.isVisible=true;
             }
 
+    /**
+     * Loads the key's sprite and animation on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
+        }
+        super.texture = Assets.acquire(Assets.OBJECTS);
+
+        // Use the shared region for this key
+        this.spriteKey = Assets.region(Assets.OBJECTS, 0, 64, 16, 16);
+
+        // Shared key animation, frames are arranged horizontally in the texture
+        keyAnimation = Assets.animation(Assets.OBJECTS, 0, 64, 16, 16, 4, 0.1f);
+    }
+
     /**
      * Updates the state of the key over time.
      *
@@ -70,6 +65,7 @@ public void update(float deltaTime) {
 
     public void render(SpriteBatch spriteBatch, float x, float y) {
         if (isVisible) {
+            loadGraphics();
             TextureRegion currentFrame = keyAnimation.getKeyFrame(stateTime, true);
 
             spriteBatch.draw(currentFrame, x, y);
@@ -93,7 +89,8 @@ public void setVisible(boolean visible) {
         isVisible = visible;
     }
 
-    public Sprite getSpriteKey() {
+    public TextureRegion getSpriteKey() {
+        loadGraphics();
         return spriteKey;
     }
 }
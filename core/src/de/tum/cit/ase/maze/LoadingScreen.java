@@ -0,0 +1,144 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import java.io.IOException;
+
+/**
+ * The LoadingScreen class loads a maze without freezing the window.
+ * The maze file is parsed and its entities are created on a worker thread, while a progress bar
+ * shows how far loading has come. Entities load their textures only when they are first drawn,
+ * so nothing on the worker needs OpenGL. The game is started on the render thread through
+ * {@link com.badlogic.gdx.Application#postRunnable} once the maze is complete.
+ */
+public class LoadingScreen implements Screen {
+    private static final int BATCH_SIZE = 256; // Entities created between two progress updates
+    private static final float PARSE_SHARE = 0.5f; // Share of the progress bar used for parsing
+
+    private final Stage stage;
+    private final MazeRunnerGame game;
+    private final Label statusLabel;
+    private final ProgressBar progressBar;
+    private final AsyncExecutor executor;
+    private volatile float progress; // Written by the worker, shown by the render thread
+    private volatile String status = "Reading maze file";
+
+    /**
+     * Constructs a new LoadingScreen and starts loading the given maze file.
+     *
+     * @param game     The MazeRunnerGame instance.
+     * @param filePath The path to the maze file.
+     */
+    public LoadingScreen(MazeRunnerGame game, String filePath) {
+        this.game = game;
+        var camera = new OrthographicCamera();
+        camera.zoom = 1.0f;
+
+        Viewport viewport = new ScreenViewport(camera);
+        stage = new Stage(viewport, game.getSpriteBatch());
+
+        Table table = new Table();
+        table.setFillParent(true);
+        stage.addActor(table);
+
+        table.add(new Label("Loading...", game.getSkin(), "title")).padBottom(80).row();
+        progressBar = new ProgressBar(0f, 1f, 0.01f, false, game.getSkin());
+        table.add(progressBar).width(400).padBottom(20).row();
+        statusLabel = new Label(status, game.getSkin());
+        table.add(statusLabel);
+
+        // Load the maze on a worker thread
+        executor = new AsyncExecutor(1, "MazeLoader");
+        executor.submit(() -> {
+            try {
+                Maze maze = Maze.parse(filePath);
+                progress = PARSE_SHARE;
+                status = "Building maze";
+                while (!maze.createEntities(BATCH_SIZE)) {
+                    progress = PARSE_SHARE + (1f - PARSE_SHARE) * maze.getEntityProgress();
+                }
+                progress = 1f;
+                Gdx.app.postRunnable(() -> startGame(maze));
+            } catch (IOException | RuntimeException e) {
+                Gdx.app.postRunnable(() -> loadingFailed(e)); // Malformed files may also fail with runtime exceptions
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Starts the game with the loaded maze. Runs on the render thread.
+     *
+     * @param maze The loaded maze.
+     */
+    private void startGame(Maze maze) {
+        game.setMaze(maze);
+        try {
+            game.goToGame(); // Switch to the game screen
+        } catch (RuntimeException e) {
+            loadingFailed(e); // The maze cannot be played, for example because it has no key
+        }
+    }
+
+    /**
+     * Reports a maze file that could not be loaded and returns to the map selection.
+     *
+     * @param e The error raised while loading.
+     */
+    private void loadingFailed(Exception e) {
+        System.out.println("Error loading maze file: " + e);
+        game.goToMapSelection("Could not load the maze: " + e.getMessage());
+    }
+
+    /**
+     * Renders the LoadingScreen. Called on each frame to update and draw the screen.
+     *
+     * @param delta Time elapsed since the last frame.
+     */
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        progressBar.setValue(progress);
+        statusLabel.setText(status);
+        stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
+        stage.draw();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        stage.dispose();
+        executor.dispose();
+    }
+
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+}
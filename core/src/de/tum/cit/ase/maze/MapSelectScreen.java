@@ -27,9 +27,10 @@ public class MapSelectScreen implements Screen {
     /**
      * Constructs a new MapSelectScreen associated with the given MazeRunnerGame instance.
      *
-     * @param game The MazeRunnerGame instance.
+     * @param game  The MazeRunnerGame instance.
+     * @param error The error of the last maze that could not be played, or null for none.
      */
-    public MapSelectScreen(MazeRunnerGame game) {
+    public MapSelectScreen(MazeRunnerGame game, String error) {
         var camera = new OrthographicCamera();
         camera.zoom = 1.0f;
 
@@ -40,41 +41,52 @@ public MapSelectScreen(MazeRunnerGame game) {
         table.setFillParent(true);
         stage.addActor(table);
 
-        table.add(new Label("Select a Map:", game.getSkin(), "title")).padBottom(80).row();
+        table.add(new Label("Select a Map:", game.getSkin(), "title")).padBottom(error == null ? 80 : 20).row();
+        if (error != null) {
+            table.add(new Label(error, game.getSkin())).padBottom(40).row();
+        }
 
-        // Create buttons for each level (map)
+        // Create buttons for each level (map), with the best time if the level has been won
+        HighScores highScores = game.getHighScores();
         for (int i = 1; i <= 5; i++) {
             final int level = i;
-            TextButton levelButton = new TextButton("Level " + i, game.getSkin());
-            table.add(levelButton).width(300).row();
+            String text = "Level " + i;
+            if (highScores != null) {
+                HighScores.Board board = highScores.getBoard("level-" + i + ".properties");
+                if (board.size() > 0) {
+                    text += ": " + HighScores.formatTime(board.getTicks(0));
+                }
+            }
+            TextButton levelButton = new TextButton(text, game.getSkin());
+            table.add(levelButton).width(340).row();
 
             levelButton.addListener(new ChangeListener() {
                 @Override
                 public void changed(ChangeEvent event, Actor actor) {
                     String mapFilePath = "maps/level-"+level+".properties"; // Set the path for the selected level
                     System.out.println(level+" is created for Maze");
-                    game.setMaze(new Maze(Gdx.files.internal(mapFilePath).file().getAbsolutePath())); // Load the selected level's map
-                    game.goToGame(); // Switch to the game screen
+                    game.goToLoading(Gdx.files.internal(mapFilePath).file().getAbsolutePath()); // Load the selected level's map
                 }
             });
         }
 
         TextButton chooseFileButton = new TextButton("Choose File", game.getSkin());
-        table.add(chooseFileButton).width(300).row();
+        table.add(chooseFileButton).width(340).row();
 
         chooseFileButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // Open a file chooser dialog for selecting a file from the local computer
-                selectLocalFile();
-                game.setMaze(new Maze(Gdx.files.internal(selectLocalFile()).file().getAbsolutePath())); // Load the selected level's map
-                game.goToGame(); // Switch to the game screen
+                String selectedFilePath = selectLocalFile();
+                if (selectedFilePath != null) {
+                    game.goToLoading(selectedFilePath); // Load the selected map
+                }
             }
         });
 
 
         TextButton backButton = new TextButton("Back to Menu", game.getSkin());
-        table.add(backButton).width(300);
+        table.add(backButton).width(340);
         backButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
@@ -86,7 +98,7 @@ public void changed(ChangeEvent event, Actor actor) {
     // Method to open a file chooser dialog for selecting a local file
     private String selectLocalFile() {
         JFileChooser fileChooser = new JFileChooser();
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("Text Files", "properties");
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("Maze Files", "properties", "maze", "cmaze");
         fileChooser.setFileFilter(filter);
 
         int returnValue = fileChooser.showOpenDialog(null);
@@ -1,18 +1,46 @@
 package de.tum.cit.ase.maze;
 
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
 import java.io.IOException;
-import java.util.Properties;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
 
 
 /**
  * The Maze class represents the game maze, containing cells with different types.
- * It can be loaded from a given file.
+ * It can be loaded from a given file, either in the {@code .properties} layout or in the binary
+ * format described in {@link MazeFile}; the format is detected automatically.
+ * <p>
+ * The cell types are stored in a flat byte array, one byte per cell. Only cells that hold an entity
+ * (entry, exit, trap, enemy or key) get their own {@link Cell} object; walls and empty cells are
+ * represented by one shared flyweight cell per type, so large mazes cost about one byte per cell.
+ * <p>
+ * Mazes in the chunked format of {@link MazeFile} are streamed instead: their cell types are looked up in
+ * {@link MazeChunks}, which only keeps the chunks around the player in memory, and their entity cells are
+ * created by {@link ChunkStreamer} while the chunk around them is active.
  */
 public class Maze {
-    private Cell[][] cells;
+    public static final int CELL_SIZE = 16; // Size of each cell in pixels
+    private static final int WALL_TYPES = 1 | 1 << 6; // Type masks for overlapsCell()
+    private static final int TRAP_TYPES = 1 << 3;
+    private static final int EXIT_TYPES = 1 << 2;
+
+    private int width;
+    private int height;
+    private byte[] types = new byte[0]; // Index x * height + y, null if the maze is streamed
+    private MazeChunks chunks; // Cell types of a streamed maze, null otherwise
+    private final LongMap<Cell> streamedCells = new LongMap<>(); // Entity cells of a streamed maze, by (long) x * height + y
+
+    private final IntMap<Cell> entityCells = new IntMap<>(); // Cells holding an entity, by index
+    private final IntArray entityIndices = new IntArray(); // Indices of the entity cells in load order
+    private int createdEntities; // Number of entity cells whose objects exist
+    private final Cell[] flyweights = new Cell[8]; // Shared cells for the static types 0, 6 and 7
 
 
 
@@ -26,62 +54,154 @@ public Maze(String filePath) {
             loadMazeFromFileWithBG(filePath);
         }
     }
+
+    private Maze() {
+    }
+
+    /**
+     * Reads a maze file without creating any entities. This does not touch OpenGL or audio, so it can run on
+     * a worker thread; the entities are created afterwards with {@link #createEntities(int)}.
+     *
+     * @param filePath The path to the file containing maze data.
+     * @return The maze with its grid loaded and no entities created yet.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static Maze parse(String filePath) throws IOException {
+        Maze maze = new Maze();
+        maze.read(filePath);
+        return maze;
+    }
+
     /**
      * Loads the maze from a file.
      *
      * @param filePath The path to the file containing maze and adds background data.
      */
     private void loadMazeFromFileWithBG(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            Properties properties = new Properties();
-            properties.load(reader);
-            int maxX = 0, maxY = 0;
-            // Determine the size of the maze
-            for (String key : properties.stringPropertyNames()) {
-                String[] parts = key.split(",");
-                int x = Integer.parseInt(parts[0]);
-                int y = Integer.parseInt(parts[1]);
-                if (x > maxX) maxX = x;
-                if (y > maxY) maxY = y;
-            }
+        try {
+            read(filePath);
+            createEntities(Integer.MAX_VALUE);
+        } catch (IOException e) {
+            System.out.println("Error loading maze file: " + e.getMessage());
+        }
+    }
 
-            // Initialize the cells array
-            cells = new Cell[maxX + 1][maxY + 1];
-            for (String key : properties.stringPropertyNames()) {
-                String[] parts = key.split(",");
-                int x = Integer.parseInt(parts[0]);
-                int y = Integer.parseInt(parts[1]);
-                int cellType = Integer.parseInt(properties.getProperty(key));
-                cells[x][y] = new Cell(cellType, x, y);
-            }
+    /**
+     * Reads a maze file into the grid and records a {@link FlightEvents.MazeLoad} event if a flight recording
+     * is running.
+     *
+     * @param filePath The path to the file containing maze data.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    private void read(String filePath) throws IOException {
+        FlightEvents.MazeLoad event = new FlightEvents.MazeLoad();
+        event.begin();
+        Path path = Path.of(filePath);
+        if (MazeFile.isChunked(path)) {
+            openChunks(path);
+        } else {
+            loadGrid(MazeFile.read(path));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filePath;
+            event.width = width;
+            event.height = height;
+            event.cells = (long) width * height;
+            event.entities = entityIndices.size;
+            event.bytes = Files.size(path);
+            event.commit();
+        }
+    }
 
+    /**
+     * Takes over the cell types of a grid, derives the back walls and collects the cells holding an entity.
+     *
+     * @param grid The grid read from the maze file.
+     */
+    private void loadGrid(MazeFile.Grid grid) {
+        this.width = grid.width;
+        this.height = grid.height;
+        this.types = grid.types;
 
-            // Fill any remaining null cells with the value 7
-            for (int x = 0; x <= maxX; x++) {
-                for (int y = 0; y <= maxY; y++) {
-                    if (cells[x][y] == null) {
-                        cells[x][y] = new Cell(7, x, y);
-                    }
+        // Update wall types based on specified conditions
+        for (int x = 0; x < width; x++) {
+            for (int y = 1; y < height; y++) {  // Start from y = 1 because we're checking the previous cell
+                int below = types[x * height + y - 1];
+                if (types[x * height + y] == 0 && (below == 0 || below == 6)) {
+                    types[x * height + y] = 6;
                 }
             }
+        }
 
-            // Update wall types based on specified conditions
-            for (int x = 0; x <= maxX; x++) {
-                for (int y = 1; y <= maxY; y++) {  // Start from y = 1 because we're checking the previous cell
-                    if (cells[x][y] != null && cells[x][y].getType() == 0) {
-                        if (cells[x][y-1] != null && (cells[x][y-1].getType() == 0 || cells[x][y-1].getType() == 6)) {
-                            cells[x][y].setType(6);
-                        }
-                    }
+        // Remember the cells that hold an entity, their objects are created separately
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (isEntityType(types[x * height + y])) {
+                    entityIndices.add(x * height + y);
                 }
             }
-        } catch (IOException e) {
-            System.out.println("Error loading maze file: " + e.getMessage());
         }
     }
 
+    /**
+     * Opens a maze in the chunked format for streaming. Only the entry and the key get their cells up front,
+     * the cells of all other entities are put in by {@link ChunkStreamer}.
+     *
+     * @param path The path of the maze file.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    private void openChunks(Path path) throws IOException {
+        this.chunks = MazeChunks.open(path, MazeChunks.DEFAULT_SLOTS);
+        this.width = chunks.getWidth();
+        this.height = chunks.getHeight();
+        this.types = null;
+        if (chunks.getEntryX() >= 0) {
+            putCell(chunks.getEntryX(), chunks.getEntryY(), new Cell(1, chunks.getEntryX(), chunks.getEntryY()));
+        }
+        if (chunks.getKeyX() >= 0) {
+            putCell(chunks.getKeyX(), chunks.getKeyY(), new Cell(5, chunks.getKeyX(), chunks.getKeyY()));
+        }
+    }
+
+    /**
+     * Creates the objects of the next entity cells. Entity objects only load their textures when first drawn,
+     * so this can run on any thread; calling it repeatedly with a small count allows reporting progress.
+     *
+     * @param count The maximum number of entity cells to create in this call.
+     * @return True if all entity cells have been created, false otherwise.
+     */
+    public boolean createEntities(int count) {
+        int end = (int) Math.min(entityIndices.size, (long) createdEntities + count);
+        for (; createdEntities < end; createdEntities++) {
+            int index = entityIndices.get(createdEntities);
+            entityCells.put(index, new Cell(types[index], index / height, index % height));
+        }
+        return createdEntities == entityIndices.size;
+    }
+
+    /**
+     * Gets the fraction of entity cells whose objects have been created.
+     *
+     * @return A value from 0 to 1.
+     */
+    public float getEntityProgress() {
+        return entityIndices.size == 0 ? 1f : (float) createdEntities / entityIndices.size;
+    }
+
+    /**
+     * Checks whether cells of the given type hold an entity and therefore need their own Cell object.
+     *
+     * @param type The cell type.
+     * @return True for the entry, exit, trap, enemy and key types, false otherwise.
+     */
+    private static boolean isEntityType(int type) {
+        return type >= 1 && type <= 5;
+    }
+
         /**
      * Gets a specific cell in the maze.
+     * Walls and empty cells are returned as a shared flyweight cell of their type.
      *
      * @param x The x-coordinate of the cell.
      * @param y The y-coordinate of the cell.
@@ -89,25 +209,275 @@ private void loadMazeFromFileWithBG(String filePath) {
      */
     public Cell getCell(int x, int y) {
         if (x >= 0 && x < getWidth() && y >= 0 && y < getHeight()) {
-            return cells[x][y];
+            int type = typeAt(x, y);
+            if (isEntityType(type)) {
+                return types == null ? streamedCells.get((long) x * height + y) : entityCells.get(x * height + y);
+            }
+            return flyweight(type);
         }
         return null;
     }
 
+    /**
+     * Puts the cell of an entity into a streamed maze, while the chunk around it is active.
+     *
+     * @param x    The x-coordinate of the cell.
+     * @param y    The y-coordinate of the cell.
+     * @param cell The entity cell.
+     */
+    public void putCell(int x, int y, Cell cell) {
+        streamedCells.put((long) x * height + y, cell);
+    }
+
+    /**
+     * Removes the cell of an entity from a streamed maze, once the chunk around it is no longer active.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    public void removeCell(int x, int y) {
+        streamedCells.remove((long) x * height + y);
+    }
+
+    /**
+     * Gets the shared cell used for every cell of a static type, creating it on first use.
+     *
+     * @param type The static cell type.
+     * @return The shared cell.
+     */
+    private Cell flyweight(int type) {
+        int slot = type & 7;
+        if (flyweights[slot] == null) {
+            flyweights[slot] = new Cell(type, 0, 0);
+        }
+        return flyweights[slot];
+    }
+
+    /**
+     * Gets the type of a specific cell without creating or looking up a Cell object.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The type of the cell, or {@link MazeFile#EMPTY} if out of bounds.
+     */
+    public int getType(int x, int y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            return typeAt(x, y);
+        }
+        return MazeFile.EMPTY;
+    }
+
+    /**
+     * Checks whether a cell blocks movement. Cells outside the maze count as walls.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is a wall or out of bounds, false otherwise.
+     */
+    public boolean isWall(int x, int y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            int type = typeAt(x, y);
+            return type == 0 || type == 6;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the type of a cell within the maze from whichever storage the maze uses.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The type of the cell.
+     */
+    private int typeAt(int x, int y) {
+        return types != null ? types[x * height + y] : chunks.getType(x, y);
+    }
+
+    /**
+     * Checks whether a rectangle overlaps the bounds of any wall. The bounds of a wall start at the
+     * bottom-left corner of its cell and have the given size.
+     *
+     * @param x          The x-coordinate of the rectangle in pixels.
+     * @param y          The y-coordinate of the rectangle in pixels.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @param wallSize   The size of the bounds of each wall.
+     * @return True if the rectangle overlaps a wall, false otherwise.
+     */
+    public boolean overlapsWall(float x, float y, float rectWidth, float rectHeight, float wallSize) {
+        return overlapsCell(x, y, rectWidth, rectHeight, wallSize, WALL_TYPES);
+    }
+
+    /**
+     * Checks whether a rectangle overlaps the bounds of any trap. The bounds of a trap start at the
+     * bottom-left corner of its cell and have the given size.
+     *
+     * @param x          The x-coordinate of the rectangle in pixels.
+     * @param y          The y-coordinate of the rectangle in pixels.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @param trapSize   The size of the bounds of each trap.
+     * @return True if the rectangle overlaps a trap, false otherwise.
+     */
+    public boolean overlapsTrap(float x, float y, float rectWidth, float rectHeight, float trapSize) {
+        return overlapsCell(x, y, rectWidth, rectHeight, trapSize, TRAP_TYPES);
+    }
+
+    /**
+     * Checks whether a rectangle overlaps the bounds of any wall, trap or exit, in a single pass over the cells.
+     * Exits are checked on the grid like walls and traps, so the check works whether or not the exit
+     * objects exist, as in the parts of a streamed maze that are not active.
+     *
+     * @param x          The x-coordinate of the rectangle in pixels.
+     * @param y          The y-coordinate of the rectangle in pixels.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @param size       The size of the bounds of each wall, trap and exit.
+     * @return True if the rectangle overlaps a wall, a trap or an exit, false otherwise.
+     */
+    public boolean overlapsObstacle(float x, float y, float rectWidth, float rectHeight, float size) {
+        return overlapsCell(x, y, rectWidth, rectHeight, size, WALL_TYPES | TRAP_TYPES | EXIT_TYPES);
+    }
+
+    /**
+     * Checks whether a rectangle overlaps the bounds of any cell whose type is in the mask.
+     * Cells outside the maze count as walls.
+     *
+     * @param types A mask with bit {@code 1 << type} set for every cell type to look for.
+     */
+    private boolean overlapsCell(float x, float y, float rectWidth, float rectHeight, float cellSize, int types) {
+        int firstX = (int) Math.floor((x - cellSize) / CELL_SIZE);
+        int lastX = (int) Math.floor((x + rectWidth) / CELL_SIZE);
+        int firstY = (int) Math.floor((y - cellSize) / CELL_SIZE);
+        int lastY = (int) Math.floor((y + rectHeight) / CELL_SIZE);
+        for (int cx = firstX; cx <= lastX; cx++) {
+            for (int cy = firstY; cy <= lastY; cy++) {
+                int type = cx >= 0 && cx < width && cy >= 0 && cy < height ? typeAt(cx, cy) : 0;
+                if ((types >> type & 1) != 0 && SpatialGrid.overlaps(x, y, rectWidth, rectHeight,
+                        cx * CELL_SIZE, cy * CELL_SIZE, cellSize, cellSize)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the cell whose bottom-left corner is nearest to a coordinate.
+     * For an object that does not overlap any wall this is never a wall cell.
+     *
+     * @param coordinate The coordinate in pixels.
+     * @return The cell coordinate.
+     */
+    public static int cellOf(float coordinate) {
+        return (int) Math.floor((coordinate + CELL_SIZE / 2f) / CELL_SIZE);
+    }
+
+    /**
+     * Gets the number of cells that hold an entity. A streamed maze has none, its entities are created
+     * chunk by chunk by {@link ChunkStreamer}.
+     *
+     * @return The number of entity cells.
+     */
+    public int getEntityCount() {
+        return entityIndices.size;
+    }
+
+    /**
+     * Gets an entity cell by its position in load order.
+     *
+     * @param i The position of the entity cell, from 0 to {@link #getEntityCount()} - 1.
+     * @return The entity cell.
+     */
+    public Cell getEntityCell(int i) {
+        return entityCells.get(entityIndices.get(i));
+    }
+
+    /**
+     * Gets the x-coordinate of an entity cell.
+     *
+     * @param i The position of the entity cell in load order.
+     * @return The x-coordinate of the cell in the maze.
+     */
+    public int getEntityX(int i) {
+        return entityIndices.get(i) / height;
+    }
+
+    /**
+     * Gets the y-coordinate of an entity cell.
+     *
+     * @param i The position of the entity cell in load order.
+     * @return The y-coordinate of the cell in the maze.
+     */
+    public int getEntityY(int i) {
+        return entityIndices.get(i) % height;
+    }
+
+    /**
+     * Computes a checksum of the size and the cell types, to tell whether two mazes are the same.
+     *
+     * @return The CRC-32 of the width and height as big-endian ints, followed by the cell types column by column.
+     */
+    public long checksum() {
+        if (chunks != null) {
+            return chunks.checksum();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(width).putInt(height).flip());
+        crc.update(types);
+        return crc.getValue();
+    }
+
+    /**
+     * Checks whether the maze is streamed from a chunked maze file.
+     *
+     * @return True if the cell types are read chunk by chunk, false if the whole maze is in memory.
+     */
+    public boolean isStreamed() {
+        return chunks != null;
+    }
+
+    /**
+     * Gets the chunks of a streamed maze.
+     *
+     * @return The chunks, or null if the maze is not streamed.
+     */
+    public MazeChunks getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Closes the maze file of a streamed maze. Mazes held in memory have nothing to close.
+     */
+    public void close() {
+        if (chunks != null) {
+            chunks.close();
+        }
+    }
+
+    /**
+     * Releases the shared textures held by the cells of the maze. Cells load their textures again when they are
+     * next drawn, so the maze can still be played afterwards.
+     */
+    public void dispose() {
+        for (Cell cell : entityCells.values()) {
+            cell.dispose();
+        }
+        for (Cell cell : streamedCells.values()) {
+            cell.dispose();
+        }
+        for (Cell cell : flyweights) {
+            if (cell != null) cell.dispose();
+        }
+    }
+
     // Method to get the width of the maze
     public int getWidth() {
-        if (cells != null && cells.length > 0) {
-            return cells.length;
-        }
-        return 0;
+        return width;
     }
 
     // Method to get the height of the maze
     public int getHeight() {
-        if (cells != null && cells.length > 0 && cells[0] != null) {
-            return cells[0].length;
-        }
-        return 0;
+        return height;
     }
 }
-
@@ -0,0 +1,359 @@
+package de.tum.cit.ase.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+
+/**
+ * The MazeChunks class gives access to the cell types of a maze stored in the chunked format of {@link MazeFile}
+ * without ever holding the whole maze in memory. Only the index of the file is read up front; the cells of a
+ * chunk are read with a single positional read the first time one of them is looked up.
+ * <p>
+ * Loaded chunks are kept in a fixed number of slots. When all slots are taken, the least recently used chunk
+ * that is not pinned is evicted, so memory stays bounded by the number of slots no matter how large the maze is
+ * or how far the player walks. The chunks around the player are pinned by {@link ChunkStreamer}, so the cells the
+ * game looks up every tick are never evicted. A chunk counts as used when it is loaded or pinned; single lookups
+ * do not update the order, which keeps them down to a few array reads. If every slot is pinned, an extra slot is
+ * added rather than evicting a chunk that is in use.
+ * <p>
+ * Lookups may run on several threads at once, as the parallel enemy update does, as long as they stay within
+ * pinned chunks; loading, pinning and lookups outside the pinned chunks must happen on a single thread.
+ * <p>
+ * Blocks are read into plain arrays rather than memory-mapped: a mapped buffer is only unmapped once it has been
+ * garbage collected, so the memory of evicted chunks would not be bounded by the slots.
+ */
+public class MazeChunks {
+    public static final int DEFAULT_SLOTS = 64; // Chunks kept in memory, 4 MB with the default chunk size
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int chunkSize;
+    private final int chunkShift; // log2 of the chunk size
+    private final int chunksX;
+    private final int chunksY;
+    private final int entryX;
+    private final int entryY;
+    private final int keyX;
+    private final int keyY;
+    private final long mazeChecksum; // Maze.checksum() of the whole maze, from the header
+    private final long[] offsets; // Index of the file, by chunk index chunkX * chunksY + chunkY
+    private final int[] checksums;
+    private final int[] entities;
+
+    private final int[] slotOfChunk; // -1 for chunks that are not loaded
+    private int[] chunkOfSlot; // -1 for free slots
+    private byte[][] cells; // Cell types of each slot, index (x - chunkX) * chunkSize + (y - chunkY)
+    private long[] lastUsed; // Value of the use counter when each slot was last loaded or pinned
+    private boolean[] pinned;
+    private int slotCount;
+    private long uses;
+    private long loads;
+    private long evictions;
+    private final CRC32 crc = new CRC32();
+
+    private MazeChunks(Path path, FileChannel channel, ByteBuffer header, int slots) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.width = header.getInt();
+        this.height = header.getInt();
+        this.chunkSize = header.getInt();
+        this.entryX = header.getInt();
+        this.entryY = header.getInt();
+        this.keyX = header.getInt();
+        this.keyY = header.getInt();
+        this.mazeChecksum = header.getLong();
+        if (width <= 0 || height <= 0 || chunkSize <= 0 || Integer.bitCount(chunkSize) != 1 || chunkSize > 4096) {
+            throw new IOException("Invalid chunked maze of " + width + "x" + height + " with chunks of " + chunkSize + " in " + path);
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunksX = (width + chunkSize - 1) / chunkSize;
+        this.chunksY = (height + chunkSize - 1) / chunkSize;
+        long chunks = (long) chunksX * chunksY;
+        long indexEnd = MazeFile.CHUNKED_HEADER_SIZE + chunks * MazeFile.INDEX_ENTRY_SIZE;
+        if (chunks > Integer.MAX_VALUE / MazeFile.INDEX_ENTRY_SIZE || indexEnd > channel.size()) {
+            throw new IOException("Truncated chunk index in " + path);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate((int) chunks * MazeFile.INDEX_ENTRY_SIZE);
+        readFully(index, MazeFile.CHUNKED_HEADER_SIZE);
+        index.flip();
+        long blockSize = (long) chunkSize * chunkSize;
+        this.offsets = new long[(int) chunks];
+        this.checksums = new int[(int) chunks];
+        this.entities = new int[(int) chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            offsets[chunk] = index.getLong();
+            checksums[chunk] = index.getInt();
+            entities[chunk] = index.getInt();
+            if (offsets[chunk] < indexEnd || offsets[chunk] + blockSize > channel.size()) {
+                throw new IOException("Chunk " + chunk + " lies outside of " + path);
+            }
+        }
+
+        this.slotOfChunk = new int[(int) chunks];
+        Arrays.fill(slotOfChunk, -1);
+        this.chunkOfSlot = new int[slots];
+        Arrays.fill(chunkOfSlot, -1);
+        this.cells = new byte[slots][];
+        this.lastUsed = new long[slots];
+        this.pinned = new boolean[slots];
+        this.slotCount = slots;
+    }
+
+    /**
+     * Opens a chunked maze file and reads its index.
+     *
+     * @param path  The path of the file.
+     * @param slots The number of chunks kept in memory.
+     * @return The chunks of the maze, none of them loaded yet.
+     * @throws IOException If the file cannot be read or is not a chunked maze file of this version.
+     */
+    public static MazeChunks open(Path path, int slots) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(MazeFile.CHUNKED_HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Read the whole header
+            }
+            if (header.hasRemaining()) {
+                throw new IOException("Truncated maze header in " + path);
+            }
+            header.flip();
+            MazeFile.checkChunkedHeader(header, path);
+            return new MazeChunks(path, channel, header, Math.max(1, slots));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the type of a cell, loading its chunk if needed. The cell must lie within the maze.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The type of the cell.
+     */
+    public int getType(int x, int y) {
+        int chunk = (x >> chunkShift) * chunksY + (y >> chunkShift);
+        int slot = slotOfChunk[chunk];
+        if (slot < 0) {
+            slot = load(chunk);
+        }
+        return cells[slot][(x & chunkSize - 1) << chunkShift | y & chunkSize - 1];
+    }
+
+    /**
+     * Gets the cell types of a whole chunk, loading it if needed, to scan a chunk without a lookup per cell.
+     * The array belongs to the cache and only holds the chunk until the chunk is evicted.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The cell types, index (x - first x of the chunk) * chunk size + (y - first y of the chunk).
+     */
+    public byte[] getCells(int chunkX, int chunkY) {
+        int chunk = chunkX * chunksY + chunkY;
+        int slot = slotOfChunk[chunk];
+        if (slot < 0) {
+            slot = load(chunk);
+        }
+        return cells[slot];
+    }
+
+    /**
+     * Reads a chunk into the least recently used slot that is not pinned.
+     *
+     * @param chunk The index of the chunk.
+     * @return The slot now holding the chunk.
+     */
+    private int load(int chunk) {
+        int slot = findFreeSlot();
+        if (chunkOfSlot[slot] >= 0) {
+            slotOfChunk[chunkOfSlot[slot]] = -1;
+            evictions++;
+        }
+        if (cells[slot] == null) {
+            cells[slot] = new byte[chunkSize * chunkSize];
+        }
+        byte[] block = cells[slot];
+        try {
+            readFully(ByteBuffer.wrap(block), offsets[chunk]);
+            crc.reset();
+            crc.update(block);
+            if ((int) crc.getValue() != checksums[chunk]) {
+                throw new IOException("checksum mismatch");
+            }
+        } catch (IOException e) {
+            // A damaged chunk becomes solid wall, so the game goes on without letting anyone walk through it
+            System.out.println("Error reading chunk " + chunk + " of " + path + ": " + e.getMessage());
+            Arrays.fill(block, (byte) 0);
+        }
+        chunkOfSlot[slot] = chunk;
+        slotOfChunk[chunk] = slot;
+        lastUsed[slot] = ++uses;
+        loads++;
+        return slot;
+    }
+
+    /**
+     * Finds the slot for a chunk that is about to be loaded: a free slot, else the least recently used slot
+     * that is not pinned, else a new slot.
+     *
+     * @return The index of the slot.
+     */
+    private int findFreeSlot() {
+        int best = -1;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (chunkOfSlot[slot] < 0) {
+                return slot;
+            }
+            if (!pinned[slot] && (best < 0 || lastUsed[slot] < lastUsed[best])) {
+                best = slot;
+            }
+        }
+        if (best < 0) {
+            best = slotCount++;
+            chunkOfSlot = Arrays.copyOf(chunkOfSlot, slotCount);
+            chunkOfSlot[best] = -1;
+            cells = Arrays.copyOf(cells, slotCount);
+            lastUsed = Arrays.copyOf(lastUsed, slotCount);
+            pinned = Arrays.copyOf(pinned, slotCount);
+        }
+        return best;
+    }
+
+    /**
+     * Pins the chunks of a rectangle so that they are never evicted, loading those that are not loaded yet,
+     * and unpins all other chunks.
+     *
+     * @param firstX The x-coordinate of the first chunk column, clamped to the maze.
+     * @param firstY The y-coordinate of the first chunk row, clamped to the maze.
+     * @param lastX  The x-coordinate of the last chunk column, clamped to the maze.
+     * @param lastY  The y-coordinate of the last chunk row, clamped to the maze.
+     */
+    public void pin(int firstX, int firstY, int lastX, int lastY) {
+        Arrays.fill(pinned, 0, slotCount, false);
+        for (int cx = Math.max(0, firstX); cx <= Math.min(chunksX - 1, lastX); cx++) {
+            for (int cy = Math.max(0, firstY); cy <= Math.min(chunksY - 1, lastY); cy++) {
+                int chunk = cx * chunksY + cy;
+                int slot = slotOfChunk[chunk];
+                if (slot < 0) {
+                    slot = load(chunk);
+                }
+                pinned[slot] = true;
+                lastUsed[slot] = ++uses;
+            }
+        }
+    }
+
+    /**
+     * Gets the checksum of the size and the cell types, which the file stores in its header, so that no chunk
+     * has to be read. It equals {@link Maze#checksum()} of the same maze loaded from any other format.
+     *
+     * @return The CRC-32 of the size and the cell types, computed like {@link Maze#checksum()}.
+     */
+    public long checksum() {
+        return mazeChecksum;
+    }
+
+    /**
+     * Reads from the file until the buffer is full.
+     *
+     * @param buffer   The buffer to fill.
+     * @param position The position in the file to read from.
+     * @throws IOException If the file cannot be read or ends before the buffer is full.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+        }
+    }
+
+    /**
+     * Closes the file. The chunks cannot be read anymore afterwards.
+     */
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing maze file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of entity cells in a chunk, from the index.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The number of cells holding an entry, exit, trap, enemy or key.
+     */
+    public int getEntityCount(int chunkX, int chunkY) {
+        return entities[chunkX * chunksY + chunkY];
+    }
+
+    /**
+     * Gets the number of chunks currently held in memory.
+     *
+     * @return The number of loaded chunks.
+     */
+    public int getLoadedCount() {
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (chunkOfSlot[slot] >= 0) count++;
+        }
+        return count;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    public int getChunksY() {
+        return chunksY;
+    }
+
+    public int getEntryX() {
+        return entryX;
+    }
+
+    public int getEntryY() {
+        return entryY;
+    }
+
+    public int getKeyX() {
+        return keyX;
+    }
+
+    public int getKeyY() {
+        return keyY;
+    }
+}
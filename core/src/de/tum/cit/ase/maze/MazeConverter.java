@@ -0,0 +1,93 @@
+package de.tum.cit.ase.maze;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * The MazeConverter class is a command-line tool that converts {@code .properties} maze files
+ * into the binary format of {@link MazeFile}. For every converted file it also reports how long
+ * loading takes from each format.
+ * <p>
+ * Usage: {@code MazeConverter <file.properties | directory>...}. Each input is written next to
+ * itself with the {@value MazeFile#BINARY_EXTENSION} extension; directories are converted file by file.
+ */
+public class MazeConverter {
+    private static final int TIMING_RUNS = 20;
+
+    /**
+     * Converts the given maze files or directories.
+     *
+     * @param args The files or directories to convert, {@code maps} if none are given.
+     */
+    public static void main(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (String arg : args.length > 0 ? args : new String[]{"maps"}) {
+                Path path = Path.of(arg);
+                if (Files.isDirectory(path)) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*.properties")) {
+                        files.forEach(inputs::add);
+                    }
+                } else {
+                    inputs.add(path);
+                }
+            }
+            inputs.sort(null);
+            for (Path input : inputs) {
+                convert(input);
+            }
+        } catch (IOException e) {
+            System.out.println("Error converting maze file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts one maze file and prints its load timings.
+     *
+     * @param input The {@code .properties} file to convert.
+     * @throws IOException If the file cannot be read or the output cannot be written.
+     */
+    private static void convert(Path input) throws IOException {
+        String name = input.getFileName().toString();
+        String baseName = name.endsWith(".properties") ? name.substring(0, name.length() - ".properties".length()) : name;
+        Path output = input.resolveSibling(baseName + MazeFile.BINARY_EXTENSION);
+
+        MazeFile.Grid grid = MazeFile.readProperties(input);
+        MazeFile.writeBinary(output, grid);
+
+        double propertiesMillis = timeLoad(input, false);
+        double binaryMillis = timeLoad(output, true);
+        System.out.printf("%s -> %s (%dx%d, %d -> %d bytes), load %.3f ms -> %.3f ms%n",
+                input, output.getFileName(), grid.width, grid.height, Files.size(input), Files.size(output),
+                propertiesMillis, binaryMillis);
+    }
+
+    /**
+     * Measures the average time to read a maze file, after a few warm-up reads.
+     *
+     * @param path   The maze file.
+     * @param binary True to read the binary format, false for the properties format.
+     * @return The average load time in milliseconds.
+     * @throws IOException If the file cannot be read.
+     */
+    private static double timeLoad(Path path, boolean binary) throws IOException {
+        for (int i = 0; i < TIMING_RUNS; i++) {
+            load(path, binary);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMING_RUNS; i++) {
+            load(path, binary);
+        }
+        return (System.nanoTime() - start) / 1e6 / TIMING_RUNS;
+    }
+
+    private static MazeFile.Grid load(Path path, boolean binary) throws IOException {
+        return binary ? MazeFile.readBinary(path) : MazeFile.readProperties(path);
+    }
+}
@@ -0,0 +1,667 @@
+package de.tum.cit.ase.maze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+
+/**
+ * The MazeFile class reads and writes the maze file formats.
+ * Besides the original {@code .properties} layout ({@code x,y=type} per line), mazes can be stored in a
+ * compact binary format that loads without any text parsing:
+ * <pre>
+ * magic    4 bytes  "MAZE"
+ * version  int      {@link #VERSION}
+ * width    int      number of columns
+ * height   int      number of rows
+ * payload  width * height bytes, one cell type per cell, column by column (index x * height + y)
+ * </pre>
+ * All integers are big-endian. Cells that are missing from a {@code .properties} file are stored as {@link #EMPTY}.
+ * <p>
+ * Mazes too large to be held in memory are stored in a chunked format instead, which {@link MazeChunks} reads
+ * chunk by chunk. The maze is cut into square chunks of {@link #CHUNK_SIZE} cells, each stored as one block
+ * that is found through an index, so any chunk can be read with a single positional read:
+ * <pre>
+ * magic    4 bytes  "MAZC"
+ * version  int      {@link #CHUNKED_VERSION}
+ * width    int      number of columns
+ * height   int      number of rows
+ * chunk    int      side length of a chunk in cells
+ * entry    int, int first entry cell in column order, -1, -1 if there is none
+ * key      int, int last key cell in column order, -1, -1 if there is none
+ * checksum long     {@link Maze#checksum()} of the whole maze, so that it matches the same maze in another format
+ * index    per chunk, column by column (index chunkX * chunksY + chunkY): offset of its block (long),
+ *          CRC-32 of its block (int) and number of entity cells in it (int)
+ * blocks   chunk * chunk bytes per chunk, column by column within the chunk
+ * </pre>
+ * Back walls are already derived in chunked files, and cells of the last chunks that lie outside the maze are
+ * stored as {@link #EMPTY}.
+ */
+public final class MazeFile {
+    public static final String BINARY_EXTENSION = ".maze";
+    public static final String CHUNKED_EXTENSION = ".cmaze";
+    public static final int VERSION = 1;
+    public static final int CHUNKED_VERSION = 2;
+    public static final byte EMPTY = 7;
+    public static final int CHUNK_SIZE = 256; // Chunk side length in cells of the chunked format
+    private static final byte[] MAGIC = {'M', 'A', 'Z', 'E'};
+    private static final byte[] CHUNKED_MAGIC = {'M', 'A', 'Z', 'C'};
+    private static final int HEADER_SIZE = MAGIC.length + 3 * Integer.BYTES;
+    static final int CHUNKED_HEADER_SIZE = CHUNKED_MAGIC.length + 8 * Integer.BYTES + Long.BYTES;
+    static final int INDEX_ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private MazeFile() {
+    }
+
+    /**
+     * The raw cell types of a maze as read from a file.
+     */
+    public static class Grid {
+        public final int width;
+        public final int height;
+        public final byte[] types; // Index x * height + y
+
+        public Grid(int width, int height, byte[] types) {
+            this.width = width;
+            this.height = height;
+            this.types = types;
+        }
+
+        public int getType(int x, int y) {
+            return types[x * height + y];
+        }
+    }
+
+    /**
+     * Checks whether a file is stored in the binary maze format by looking at its magic bytes.
+     *
+     * @param path The path of the file.
+     * @return True if the file starts with the binary magic, false otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            return Arrays.equals(magic, MAGIC);
+        }
+    }
+
+    /**
+     * Checks whether a file is stored in the chunked maze format by looking at its magic bytes.
+     *
+     * @param path The path of the file.
+     * @return True if the file starts with the chunked magic, false otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isChunked(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(CHUNKED_MAGIC.length);
+            return Arrays.equals(magic, CHUNKED_MAGIC);
+        }
+    }
+
+    /**
+     * Checks the magic bytes and version at the start of a chunked maze file.
+     *
+     * @param header The header, positioned at its start.
+     * @param path   The path of the file, for error messages.
+     * @throws IOException If the header does not belong to a chunked maze file of this version.
+     */
+    static void checkChunkedHeader(ByteBuffer header, Path path) throws IOException {
+        byte[] magic = new byte[CHUNKED_MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, CHUNKED_MAGIC)) {
+            throw new IOException("Not a chunked maze file: " + path);
+        }
+        int version = header.getInt();
+        if (version != CHUNKED_VERSION) {
+            throw new IOException("Unsupported maze file version " + version + " in " + path);
+        }
+    }
+
+    /**
+     * Reads a maze in whichever format the file is stored in.
+     *
+     * @param path The path of the file.
+     * @return The maze grid.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static Grid read(Path path) throws IOException {
+        return isBinary(path) ? readBinary(path) : readProperties(path);
+    }
+
+    /**
+     * Reads a maze stored in the binary format through a memory-mapped buffer.
+     *
+     * @param path The path of the file.
+     * @return The maze grid.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static Grid readBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Truncated maze header in " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary maze file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported maze file version " + version + " in " + path);
+            }
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            long cells = (long) width * height;
+            if (width < 0 || height < 0 || cells > Integer.MAX_VALUE || size - HEADER_SIZE < cells) {
+                throw new IOException("Invalid maze size " + width + "x" + height + " in " + path);
+            }
+            byte[] types = new byte[(int) cells];
+            buffer.get(types);
+            return new Grid(width, height, types);
+        }
+    }
+
+    /**
+     * Reads a maze stored in the {@code .properties} format in a single streaming pass.
+     * Lines of the form {@code x,y=type} are parsed directly from a buffered channel without building
+     * strings, and the cell types are written into a grid that grows as larger coordinates appear,
+     * so memory use during loading is proportional to the size of the maze.
+     *
+     * @param path The path of the file.
+     * @return The maze grid.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static Grid readProperties(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            PropertiesReader reader = new PropertiesReader(path);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                reader.accept(buffer.array(), buffer.limit());
+                buffer.clear();
+            }
+            return reader.finish();
+        }
+    }
+
+    /**
+     * Writes a maze in the binary format.
+     *
+     * @param path The path of the file to write.
+     * @param grid The maze grid.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeBinary(Path path, Grid grid) throws IOException {
+        try (ColumnWriter writer = new BinaryWriter(path, grid.width, grid.height)) {
+            writer.writeColumns(grid.types, grid.width);
+        }
+    }
+
+    /**
+     * Opens a writer for a maze that is produced column by column, choosing the format by the file
+     * extension: {@value #CHUNKED_EXTENSION} for the chunked format, {@value #BINARY_EXTENSION} for the
+     * binary format, the {@code .properties} layout otherwise. Only the chunked format can hold mazes of
+     * more than {@link Integer#MAX_VALUE} cells.
+     *
+     * @param path   The path of the file to write.
+     * @param width  The width of the maze.
+     * @param height The height of the maze.
+     * @return The writer, which must be closed after the last column.
+     * @throws IOException If the file cannot be created or the maze is too large for the format.
+     */
+    public static ColumnWriter openWriter(Path path, int width, int height) throws IOException {
+        String name = path.getFileName().toString();
+        if (name.endsWith(CHUNKED_EXTENSION)) {
+            return new ChunkedWriter(path, width, height);
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IOException("Maze of " + width + "x" + height + " is too large to load as a whole, use the "
+                    + CHUNKED_EXTENSION + " format");
+        }
+        if (name.endsWith(BINARY_EXTENSION)) {
+            return new BinaryWriter(path, width, height);
+        }
+        return new PropertiesWriter(path, width, height);
+    }
+
+    /**
+     * Writes a maze to a file column by column, so that a maze never has to be held in memory as a whole.
+     * Columns must be written in order, from x = 0 to x = width - 1.
+     */
+    public abstract static class ColumnWriter implements Closeable {
+        protected final int width;
+        protected final int height;
+        protected int nextColumn;
+
+        ColumnWriter(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Writes the next columns of the maze.
+         *
+         * @param types   The cell types of the columns, index {@code column * height + y}.
+         * @param columns The number of columns to write.
+         * @throws IOException If the file cannot be written or more columns are written than the maze has.
+         */
+        public void writeColumns(byte[] types, int columns) throws IOException {
+            if (nextColumn + columns > width) {
+                throw new IOException("Maze has only " + width + " columns");
+            }
+            write(types, columns);
+            nextColumn += columns;
+        }
+
+        protected abstract void write(byte[] types, int columns) throws IOException;
+    }
+
+    /**
+     * Writes the binary header up front and then the columns as they arrive.
+     */
+    private static class BinaryWriter extends ColumnWriter {
+        private final FileChannel channel;
+
+        BinaryWriter(Path path, int width, int height) throws IOException {
+            super(width, height);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.put(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+            channel.write(header);
+        }
+
+        @Override
+        protected void write(byte[] types, int columns) throws IOException {
+            ByteBuffer payload = ByteBuffer.wrap(types, 0, columns * height);
+            while (payload.hasRemaining()) {
+                channel.write(payload);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Collects the columns of one column of chunks and writes each of its chunks as a block once the column
+     * is complete, so only {@link #CHUNK_SIZE} columns of the maze are held in memory. The header and the
+     * index are written last, when the position of every block is known.
+     */
+    private static class ChunkedWriter extends ColumnWriter {
+        private final FileChannel channel;
+        private final int chunksX;
+        private final int chunksY;
+        private final long[] offsets;
+        private final int[] checksums;
+        private final int[] entities;
+        private final byte[] columns; // The columns of the current column of chunks, index (x - firstX) * height + y
+        private final ByteBuffer block = ByteBuffer.allocate(CHUNK_SIZE * CHUNK_SIZE);
+        private final CRC32 crc = new CRC32();
+        private final CRC32 mazeCrc = new CRC32(); // Checksum of the whole maze, computed like Maze.checksum()
+        private int bufferedColumns;
+        private int firstX; // First column of the current column of chunks
+        private long position; // Where the next block is written
+        private int entryX = -1;
+        private int entryY = -1;
+        private int keyX = -1;
+        private int keyY = -1;
+
+        ChunkedWriter(Path path, int width, int height) throws IOException {
+            super(width, height);
+            chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int chunks = Math.multiplyExact(chunksX, chunksY);
+            offsets = new long[chunks];
+            checksums = new int[chunks];
+            entities = new int[chunks];
+            columns = new byte[Math.multiplyExact(CHUNK_SIZE, height)];
+            position = CHUNKED_HEADER_SIZE + (long) chunks * INDEX_ENTRY_SIZE;
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            mazeCrc.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(width).putInt(height).flip());
+        }
+
+        @Override
+        protected void write(byte[] types, int count) throws IOException {
+            int written = 0;
+            while (written < count) {
+                int taken = Math.min(count - written, CHUNK_SIZE - bufferedColumns);
+                System.arraycopy(types, written * height, columns, bufferedColumns * height, taken * height);
+                bufferedColumns += taken;
+                written += taken;
+                if (bufferedColumns == CHUNK_SIZE) {
+                    writeChunkColumn();
+                }
+            }
+        }
+
+        /**
+         * Writes the chunks of the buffered columns, deriving the back walls like {@link Maze} does for the
+         * other formats.
+         *
+         * @throws IOException If the file cannot be written.
+         */
+        private void writeChunkColumn() throws IOException {
+            // Derive the back walls, then hash the columns in the order Maze.checksum() hashes the cells
+            for (int lx = 0; lx < bufferedColumns; lx++) {
+                int column = lx * height;
+                for (int y = 1; y < height; y++) {
+                    byte below = columns[column + y - 1];
+                    if (columns[column + y] == 0 && (below == 0 || below == 6)) {
+                        columns[column + y] = 6;
+                    }
+                }
+                mazeCrc.update(columns, column, height);
+            }
+
+            int cx = firstX / CHUNK_SIZE;
+            for (int cy = 0; cy < chunksY; cy++) {
+                int firstY = cy * CHUNK_SIZE;
+                byte[] cells = block.array();
+                int count = 0;
+                for (int lx = 0; lx < CHUNK_SIZE; lx++) {
+                    for (int ly = 0; ly < CHUNK_SIZE; ly++) {
+                        int y = firstY + ly;
+                        byte type = EMPTY;
+                        if (lx < bufferedColumns && y < height) {
+                            type = columns[lx * height + y];
+                            if (type >= 1 && type <= 5) {
+                                count++;
+                                remember(type, firstX + lx, y);
+                            }
+                        }
+                        cells[lx * CHUNK_SIZE + ly] = type;
+                    }
+                }
+                crc.reset();
+                crc.update(cells);
+                int chunk = cx * chunksY + cy;
+                offsets[chunk] = position;
+                checksums[chunk] = (int) crc.getValue();
+                entities[chunk] = count;
+                block.clear();
+                while (block.hasRemaining()) {
+                    channel.write(block, position + block.position());
+                }
+                position += cells.length;
+            }
+            firstX += CHUNK_SIZE;
+            bufferedColumns = 0;
+        }
+
+        /**
+         * Remembers the entry and the key for the header, keeping the same ones that {@link World} picks from
+         * a whole maze.
+         */
+        private void remember(byte type, int x, int y) {
+            if (type == 1 && (entryX < 0 || x < entryX || x == entryX && y < entryY)) {
+                entryX = x;
+                entryY = y;
+            } else if (type == 5 && (x > keyX || x == keyX && y > keyY)) {
+                keyX = x;
+                keyY = y;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (bufferedColumns > 0) {
+                    writeChunkColumn();
+                }
+                if (nextColumn == width) {
+                    ByteBuffer index = ByteBuffer.allocate(CHUNKED_HEADER_SIZE + offsets.length * INDEX_ENTRY_SIZE);
+                    index.put(CHUNKED_MAGIC).putInt(CHUNKED_VERSION).putInt(width).putInt(height).putInt(CHUNK_SIZE)
+                            .putInt(entryX).putInt(entryY).putInt(keyX).putInt(keyY).putLong(mazeCrc.getValue());
+                    for (int chunk = 0; chunk < offsets.length; chunk++) {
+                        index.putLong(offsets[chunk]).putInt(checksums[chunk]).putInt(entities[chunk]);
+                    }
+                    index.flip();
+                    while (index.hasRemaining()) {
+                        channel.write(index, index.position());
+                    }
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes one {@code x,y=type} line per cell, formatting the numbers directly into a byte buffer.
+     * Empty cells are left out, they are read back as {@link #EMPTY}; the cells of the last column and
+     * row are always written so that the maze keeps its size.
+     */
+    private static class PropertiesWriter extends ColumnWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final byte[] digits = new byte[10];
+
+        PropertiesWriter(Path path, int width, int height) throws IOException {
+            super(width, height);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        protected void write(byte[] types, int columns) throws IOException {
+            for (int column = 0; column < columns; column++) {
+                int x = nextColumn + column;
+                for (int y = 0; y < height; y++) {
+                    byte type = types[column * height + y];
+                    if (type != EMPTY || x == width - 1 || y == height - 1) {
+                        if (buffer.remaining() < 2 * digits.length + 4) {
+                            flush();
+                        }
+                        putNumber(x);
+                        buffer.put((byte) ',');
+                        putNumber(y);
+                        buffer.put((byte) '=');
+                        putNumber(type);
+                        buffer.put((byte) '\n');
+                    }
+                }
+            }
+        }
+
+        private void putNumber(int value) {
+            int count = 0;
+            do {
+                digits[count++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (count > 0) {
+                buffer.put(digits[--count]);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Incremental parser for the {@code .properties} maze layout. Bytes are fed in arbitrary chunks,
+     * each complete line is parsed into a cell type, and the backing grid doubles in size whenever a
+     * coordinate falls outside of it. Blank lines and comments starting with {@code #} or {@code !} are skipped.
+     */
+    private static class PropertiesReader {
+        private final Path path;
+        private byte[] line = new byte[64];
+        private int lineLength;
+        private int lineNumber;
+        private int pos; // Parse position within the current line
+        private boolean afterCarriageReturn; // True if the last byte fed was '\r', whose '\n' does not end another line
+
+        private byte[] types = new byte[0]; // Index x * capacityHeight + y
+        private int capacityWidth;
+        private int capacityHeight;
+        private int maxX;
+        private int maxY;
+
+        PropertiesReader(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Feeds the next chunk of the file.
+         *
+         * @param bytes  The buffer holding the chunk.
+         * @param length The number of valid bytes in the buffer.
+         * @throws IOException If a complete line is malformed.
+         */
+        void accept(byte[] bytes, int length) throws IOException {
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+                boolean lineFeedOfCrLf = b == '\n' && afterCarriageReturn;
+                afterCarriageReturn = b == '\r';
+                if (lineFeedOfCrLf) {
+                    continue; // The '\r' has already ended the line
+                }
+                if (b == '\n' || b == '\r') {
+                    parseLine();
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+
+        /**
+         * Parses the last line and returns the grid trimmed to the largest coordinates seen.
+         *
+         * @return The maze grid.
+         * @throws IOException If the last line is malformed.
+         */
+        Grid finish() throws IOException {
+            parseLine();
+            int width = maxX + 1;
+            int height = maxY + 1;
+            if (width == capacityWidth && height == capacityHeight) {
+                return new Grid(width, height, types);
+            }
+            byte[] trimmed = new byte[width * height];
+            Arrays.fill(trimmed, EMPTY);
+            for (int x = 0; x < Math.min(width, capacityWidth); x++) {
+                System.arraycopy(types, x * capacityHeight, trimmed, x * height, Math.min(height, capacityHeight));
+            }
+            return new Grid(width, height, trimmed);
+        }
+
+        private void parseLine() throws IOException {
+            lineNumber++;
+            pos = 0;
+            skipWhitespace();
+            if (pos < lineLength && line[pos] != '#' && line[pos] != '!') {
+                int x = parseNumber();
+                skipWhitespace();
+                expect(',');
+                skipWhitespace();
+                int y = parseNumber();
+                skipWhitespace();
+                if (pos < lineLength && (line[pos] == '=' || line[pos] == ':')) {
+                    pos++;
+                    skipWhitespace();
+                }
+                int type = parseNumber();
+                skipWhitespace();
+                if (pos != lineLength) {
+                    throw malformed();
+                }
+                if (type > EMPTY) {
+                    throw new IOException("Unknown cell type " + type + " in " + path + " at line " + lineNumber
+                            + ", expected 0 to " + EMPTY);
+                }
+                set(x, y, type);
+            }
+            lineLength = 0;
+        }
+
+        private int parseNumber() throws IOException {
+            int start = pos;
+            long value = 0;
+            while (pos < lineLength && line[pos] >= '0' && line[pos] <= '9') {
+                value = value * 10 + (line[pos++] - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw malformed();
+                }
+            }
+            if (pos == start) {
+                throw malformed();
+            }
+            return (int) value;
+        }
+
+        private void expect(char c) throws IOException {
+            if (pos >= lineLength || line[pos] != c) {
+                throw malformed();
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < lineLength && (line[pos] == ' ' || line[pos] == '\t' || line[pos] == '\f')) {
+                pos++;
+            }
+        }
+
+        private IOException malformed() {
+            return new IOException("Malformed maze entry in " + path + " at line " + lineNumber + ": "
+                    + new String(line, 0, lineLength, StandardCharsets.ISO_8859_1));
+        }
+
+        private void set(int x, int y, int type) {
+            if (x >= capacityWidth || y >= capacityHeight) {
+                grow(x, y);
+            }
+            types[x * capacityHeight + y] = (byte) type;
+            if (x > maxX) maxX = x;
+            if (y > maxY) maxY = y;
+        }
+
+        private void grow(int x, int y) {
+            int newWidth = x < capacityWidth ? capacityWidth : Math.max(x + 1, capacityWidth * 2);
+            int newHeight = y < capacityHeight ? capacityHeight : Math.max(y + 1, capacityHeight * 2);
+            byte[] grown = new byte[Math.multiplyExact(newWidth, newHeight)];
+            Arrays.fill(grown, EMPTY);
+            for (int column = 0; column < capacityWidth; column++) {
+                System.arraycopy(types, column * capacityHeight, grown, column * newHeight, capacityHeight);
+            }
+            types = grown;
+            capacityWidth = newWidth;
+            capacityHeight = newHeight;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+
+/**
+ * The MazeGenerator class generates large mazes and streams them directly into a maze file.
+ * <p>
+ * Rooms sit on the odd cells of the grid and are separated by walls on the even cells. The rooms are grouped
+ * into square regions of {@link #REGION_ROOMS} x {@link #REGION_ROOMS}. Each region is carved into a perfect maze
+ * of its own, and the regions are joined through single doors along a random spanning tree, so the whole maze
+ * is perfect as well: there is exactly one path between any two rooms. A braided maze additionally opens
+ * dead ends and adds doors between regions that are not joined by the tree, creating loops.
+ * <p>
+ * Regions only depend on the seed and the doors chosen up front, so they are generated independently
+ * and in parallel, one column of regions at a time. While one column is written, the next one is
+ * generated, and only two columns of regions are ever held in memory.
+ * <p>
+ * Usage: {@code MazeGenerator <width> <height> <output> [seed=1] [braid=0] [traps=0.01] [enemies=0.005] [exits=4]}.
+ * The output format is chosen by the extension, see {@link MazeFile#openWriter(Path, int, int)}.
+ */
+public class MazeGenerator {
+    public static final int REGION_ROOMS = 128; // Rooms per region side
+
+    private static final byte WALL = 0;
+    private static final byte ENTRY = 1;
+    private static final byte EXIT = 2;
+    private static final byte TRAP = 3;
+    private static final byte ENEMY = 4;
+    private static final byte KEY = 5;
+    private static final byte EAST = 1; // Room link flags
+    private static final byte NORTH = 2;
+
+    private final int width;
+    private final int height;
+    private final int roomsX;
+    private final int roomsY;
+    private final int regionsX;
+    private final int regionsY;
+    private final long seed;
+    private final float braid;
+    private final float trapDensity;
+    private final float enemyDensity;
+    private final int[] doorWest; // Room row of each region's door to its west neighbour, -1 if there is none
+    private final int[] doorSouth; // Room column of each region's door to its south neighbour, -1 if there is none
+    private final int keyX;
+    private final int keyY;
+    private final IntArray exits = new IntArray(); // Packed as x, y pairs
+
+    /**
+     * Constructs a new MazeGenerator and chooses the doors between regions, the key and the exits.
+     * Even sizes are rounded down to the next odd size, so that the maze is closed by walls on every side.
+     *
+     * @param width        The width of the maze in cells.
+     * @param height       The height of the maze in cells.
+     * @param seed         The seed, the same arguments always generate the same maze.
+     * @param braid        The probability from 0 to 1 of opening a dead end, 0 for a perfect maze.
+     * @param trapDensity  The probability of a room holding a trap.
+     * @param enemyDensity The probability of a room holding an enemy.
+     * @param exitCount    The number of exits on the outer wall.
+     */
+    public MazeGenerator(int width, int height, long seed, float braid, float trapDensity, float enemyDensity,
+                         int exitCount) {
+        this.roomsX = (width - 1) / 2;
+        this.roomsY = (height - 1) / 2;
+        if (roomsX < 1 || roomsY < 1 || (long) roomsX * roomsY < 2) {
+            throw new IllegalArgumentException("Maze of " + width + "x" + height + " is too small");
+        }
+        this.width = 2 * roomsX + 1;
+        this.height = 2 * roomsY + 1;
+        this.regionsX = (roomsX + REGION_ROOMS - 1) / REGION_ROOMS;
+        this.regionsY = (roomsY + REGION_ROOMS - 1) / REGION_ROOMS;
+        this.seed = seed;
+        this.braid = braid;
+        this.trapDensity = trapDensity;
+        this.enemyDensity = enemyDensity;
+        this.doorWest = new int[regionsX * regionsY];
+        this.doorSouth = new int[regionsX * regionsY];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        connectRegions(random);
+
+        // The key goes into the region farthest from the entry, but never into the entry's room
+        int keyRoomX;
+        int keyRoomY;
+        do {
+            keyRoomX = (regionsX - 1) * REGION_ROOMS + random.nextInt(regionRoomsX(regionsX - 1));
+            keyRoomY = (regionsY - 1) * REGION_ROOMS + random.nextInt(regionRoomsY(regionsY - 1));
+        } while (keyRoomX == 0 && keyRoomY == 0);
+        this.keyX = 2 * keyRoomX + 1;
+        this.keyY = 2 * keyRoomY + 1;
+
+        // Exits are openings in the outer wall next to a room
+        for (int i = 0; i < exitCount; i++) {
+            switch (random.nextInt(4)) {
+                case 0 -> exits.add(0, 2 * random.nextInt(roomsY) + 1);
+                case 1 -> exits.add(this.width - 1, 2 * random.nextInt(roomsY) + 1);
+                case 2 -> exits.add(2 * random.nextInt(roomsX) + 1, 0);
+                default -> exits.add(2 * random.nextInt(roomsX) + 1, this.height - 1);
+            }
+        }
+    }
+
+    /**
+     * Chooses the doors between regions: one door along every edge of a random spanning tree of the regions,
+     * and for braided mazes one more door along some of the remaining edges.
+     *
+     * @param random The generator's random numbers.
+     */
+    private void connectRegions(SplittableRandom random) {
+        Arrays.fill(doorWest, -1);
+        Arrays.fill(doorSouth, -1);
+        int count = regionsX * regionsY;
+        boolean[] visited = new boolean[count];
+        int[] stack = new int[count];
+        int[] candidates = new int[4];
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        while (top > 0) {
+            int region = stack[top - 1];
+            int rx = region % regionsX;
+            int ry = region / regionsX;
+            int found = 0;
+            if (rx > 0 && !visited[region - 1]) candidates[found++] = region - 1;
+            if (rx < regionsX - 1 && !visited[region + 1]) candidates[found++] = region + 1;
+            if (ry > 0 && !visited[region - regionsX]) candidates[found++] = region - regionsX;
+            if (ry < regionsY - 1 && !visited[region + regionsX]) candidates[found++] = region + regionsX;
+            if (found == 0) {
+                top--;
+                continue;
+            }
+            int next = candidates[random.nextInt(found)];
+            addDoor(Math.min(region, next), Math.max(region, next), random);
+            visited[next] = true;
+            stack[top++] = next;
+        }
+
+        for (int region = 0; region < count; region++) {
+            if (region % regionsX > 0 && doorWest[region] < 0 && random.nextFloat() < braid) {
+                addDoor(region - 1, region, random);
+            }
+            if (region >= regionsX && doorSouth[region] < 0 && random.nextFloat() < braid) {
+                addDoor(region - regionsX, region, random);
+            }
+        }
+    }
+
+    /**
+     * Places a door at a random position along the wall between two neighbouring regions.
+     *
+     * @param lower  The region to the west or to the south.
+     * @param higher The region to the east or to the north.
+     * @param random The generator's random numbers.
+     */
+    private void addDoor(int lower, int higher, SplittableRandom random) {
+        if (higher == lower + 1) {
+            doorWest[higher] = random.nextInt(regionRoomsY(higher / regionsX));
+        } else {
+            doorSouth[higher] = random.nextInt(regionRoomsX(higher % regionsX));
+        }
+    }
+
+    private int regionRoomsX(int rx) {
+        return Math.min(REGION_ROOMS, roomsX - rx * REGION_ROOMS);
+    }
+
+    private int regionRoomsY(int ry) {
+        return Math.min(REGION_ROOMS, roomsY - ry * REGION_ROOMS);
+    }
+
+    /**
+     * Gets the number of cell columns a column of regions covers: the west wall and the rooms of each region,
+     * plus the outer east wall for the last column.
+     *
+     * @param rx The column of regions.
+     * @return The number of cell columns.
+     */
+    private int stripColumns(int rx) {
+        return 2 * regionRoomsX(rx) + (rx == regionsX - 1 ? 1 : 0);
+    }
+
+    /**
+     * Generates the maze and writes it to a file.
+     *
+     * @param output The maze file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void generate(Path output) throws IOException {
+        byte[][] strips = new byte[2][(2 * REGION_ROOMS + 1) * height];
+        try (MazeFile.ColumnWriter writer = MazeFile.openWriter(output, width, height)) {
+            CompletableFuture<byte[]> next = generateStripAsync(0, strips[0]);
+            for (int rx = 0; rx < regionsX; rx++) {
+                byte[] strip = next.join();
+                if (rx + 1 < regionsX) {
+                    next = generateStripAsync(rx + 1, strips[(rx + 1) & 1]);
+                }
+                writer.writeColumns(strip, stripColumns(rx));
+            }
+        }
+    }
+
+    /**
+     * Starts generating all regions of a column of regions in parallel.
+     *
+     * @param rx    The column of regions.
+     * @param strip The buffer for the cells of the column, index {@code (x - firstX) * height + y}.
+     * @return A future completing with the filled buffer.
+     */
+    private CompletableFuture<byte[]> generateStripAsync(int rx, byte[] strip) {
+        return CompletableFuture.supplyAsync(() -> {
+            IntStream.range(0, regionsY).parallel().forEach(ry -> generateRegion(rx, ry, strip));
+            return strip;
+        });
+    }
+
+    /**
+     * Carves one region into a perfect maze with a randomized depth-first search, opens dead ends in braided
+     * mazes and writes the region's cells, including its doors, traps, enemies, and where they fall into
+     * the region the entry, the key and the exits.
+     *
+     * @param rx    The column of the region.
+     * @param ry    The row of the region.
+     * @param strip The buffer for the cells of the region's column.
+     */
+    private void generateRegion(int rx, int ry, byte[] strip) {
+        int region = rx + ry * regionsX;
+        SplittableRandom random = new SplittableRandom(seed ^ (region + 1) * 0x9E3779B97F4A7C15L);
+        int rw = regionRoomsX(rx);
+        int rh = regionRoomsY(ry);
+        byte[] links = new byte[rw * rh]; // EAST and NORTH flags of each room, index i * rh + j
+        carve(links, rw, rh, random);
+        if (braid > 0) {
+            openDeadEnds(links, rx, ry, rw, rh, random);
+        }
+
+        int firstX = 2 * rx * REGION_ROOMS;
+        int firstY = 2 * ry * REGION_ROOMS;
+        int lastX = firstX + 2 * rw + (rx == regionsX - 1 ? 1 : 0);
+        int lastY = firstY + 2 * rh + (ry == regionsY - 1 ? 1 : 0);
+        for (int x = firstX; x < lastX; x++) {
+            Arrays.fill(strip, (x - firstX) * height + firstY, (x - firstX) * height + lastY, WALL);
+        }
+        for (int i = 0; i < rw; i++) {
+            for (int j = 0; j < rh; j++) {
+                int x = firstX + 2 * i + 1;
+                int y = firstY + 2 * j + 1;
+                float roll = random.nextFloat();
+                strip[(x - firstX) * height + y] = roll < trapDensity ? TRAP
+                        : roll < trapDensity + enemyDensity ? ENEMY : MazeFile.EMPTY;
+                if ((links[i * rh + j] & EAST) != 0) {
+                    strip[(x + 1 - firstX) * height + y] = MazeFile.EMPTY;
+                }
+                if ((links[i * rh + j] & NORTH) != 0) {
+                    strip[(x - firstX) * height + y + 1] = MazeFile.EMPTY;
+                }
+            }
+        }
+        if (doorWest[region] >= 0) {
+            strip[firstY + 2 * doorWest[region] + 1] = MazeFile.EMPTY;
+        }
+        if (doorSouth[region] >= 0) {
+            strip[(2 * doorSouth[region] + 1) * height + firstY] = MazeFile.EMPTY;
+        }
+
+        // Entities that are placed once for the whole maze
+        place(strip, 1, 1, ENTRY, firstX, firstY, lastX, lastY);
+        place(strip, keyX, keyY, KEY, firstX, firstY, lastX, lastY);
+        for (int i = 0; i < exits.size; i += 2) {
+            place(strip, exits.get(i), exits.get(i + 1), EXIT, firstX, firstY, lastX, lastY);
+        }
+    }
+
+    /**
+     * Links the rooms of a region into a spanning tree with an iterative randomized depth-first search.
+     *
+     * @param links  The link flags of the rooms, filled in.
+     * @param rw     The number of room columns in the region.
+     * @param rh     The number of room rows in the region.
+     * @param random The region's random numbers.
+     */
+    private static void carve(byte[] links, int rw, int rh, SplittableRandom random) {
+        boolean[] visited = new boolean[rw * rh];
+        int[] stack = new int[rw * rh];
+        int[] candidates = new int[4];
+        int top = 0;
+        int start = random.nextInt(rw * rh);
+        stack[top++] = start;
+        visited[start] = true;
+        while (top > 0) {
+            int room = stack[top - 1];
+            int i = room / rh;
+            int j = room % rh;
+            int found = 0;
+            if (i > 0 && !visited[room - rh]) candidates[found++] = room - rh;
+            if (i < rw - 1 && !visited[room + rh]) candidates[found++] = room + rh;
+            if (j > 0 && !visited[room - 1]) candidates[found++] = room - 1;
+            if (j < rh - 1 && !visited[room + 1]) candidates[found++] = room + 1;
+            if (found == 0) {
+                top--;
+                continue;
+            }
+            int next = candidates[random.nextInt(found)];
+            link(links, room, next, rh);
+            visited[next] = true;
+            stack[top++] = next;
+        }
+    }
+
+    /**
+     * Opens a wall between two neighbouring rooms of a region.
+     */
+    private static void link(byte[] links, int room, int other, int rh) {
+        int lower = Math.min(room, other);
+        links[lower] |= Math.abs(room - other) == rh ? EAST : NORTH;
+    }
+
+    /**
+     * Opens one more wall of each dead end with the braid probability. Only walls inside the region are opened,
+     * so that regions stay independent of each other; doors to neighbouring regions count as openings.
+     */
+    private void openDeadEnds(byte[] links, int rx, int ry, int rw, int rh, SplittableRandom random) {
+        int region = rx + ry * regionsX;
+        int[] candidates = new int[4];
+        for (int i = 0; i < rw; i++) {
+            for (int j = 0; j < rh; j++) {
+                int room = i * rh + j;
+                int openings = 0;
+                int found = 0;
+                // West, east, south and north neighbour: counted as an opening if linked, as a candidate otherwise
+                if (i > 0) {
+                    if ((links[room - rh] & EAST) != 0) openings++; else candidates[found++] = room - rh;
+                } else if (doorWest[region] == j) {
+                    openings++;
+                }
+                if (i < rw - 1) {
+                    if ((links[room] & EAST) != 0) openings++; else candidates[found++] = room + rh;
+                } else if (rx < regionsX - 1 && doorWest[region + 1] == j) {
+                    openings++;
+                }
+                if (j > 0) {
+                    if ((links[room - 1] & NORTH) != 0) openings++; else candidates[found++] = room - 1;
+                } else if (doorSouth[region] == i) {
+                    openings++;
+                }
+                if (j < rh - 1) {
+                    if ((links[room] & NORTH) != 0) openings++; else candidates[found++] = room + 1;
+                } else if (ry < regionsY - 1 && doorSouth[region + regionsX] == i) {
+                    openings++;
+                }
+                if (openings == 1 && found > 0 && random.nextFloat() < braid) {
+                    link(links, room, candidates[random.nextInt(found)], rh);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a cell type if the cell lies within the given range of the strip.
+     */
+    private void place(byte[] strip, int x, int y, byte type, int firstX, int firstY, int lastX, int lastY) {
+        if (x >= firstX && x < lastX && y >= firstY && y < lastY) {
+            strip[(x - firstX) * height + y] = type;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Generates a maze from the command line.
+     *
+     * @param args The width, the height, the output file and optional {@code name=value} options.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: MazeGenerator <width> <height> <output> [seed=1] [braid=0] [traps=0.01] [enemies=0.005] [exits=4]");
+            System.exit(1);
+        }
+        try {
+            long seed = 1;
+            float braid = 0f;
+            float traps = 0.01f;
+            float enemies = 0.005f;
+            int exits = 4;
+            for (int i = 3; i < args.length; i++) {
+                String[] option = args[i].split("=", 2);
+                String value = option.length == 2 ? option[1] : "";
+                switch (option[0]) {
+                    case "seed" -> seed = Long.parseLong(value);
+                    case "braid" -> braid = Float.parseFloat(value);
+                    case "traps" -> traps = Float.parseFloat(value);
+                    case "enemies" -> enemies = Float.parseFloat(value);
+                    case "exits" -> exits = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            MazeGenerator generator = new MazeGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                    seed, braid, traps, enemies, exits);
+            Path output = Path.of(args[2]);
+            long start = System.nanoTime();
+            generator.generate(output);
+            System.out.printf("Generated %dx%d maze in %.0f ms: %s (%d bytes)%n", generator.getWidth(),
+                    generator.getHeight(), (System.nanoTime() - start) / 1e6, output, Files.size(output));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error generating maze: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+
+/**
+ * The MazeRenderer class draws the maze in fixed-size chunks.
+ * The static tiles of a chunk (floor, walls and entry) are built once into a SpriteCache,
+ * and only the chunks that intersect the camera's view are drawn. Animated or changing tiles
+ * (exits, traps and the key) are drawn through the SpriteBatch, again only for visible chunks.
+ * The per-frame cost therefore depends on the size of the view, not on the size of the maze.
+ * <p>
+ * All chunks share one SpriteCache, and with it one shader and one vertex buffer: each slot owns a cache ID
+ * that is redefined whenever another chunk is built into the slot.
+ */
+public class MazeRenderer {
+    public static final int CHUNK_SIZE = 32; // Chunk side length in cells
+    private static final int SPRITES_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE * 2; // Floor plus one tile per cell
+    private static final int INITIAL_SLOTS = 4; // Chunks the cache has room for at first, enough for the usual view
+
+    private final Maze maze;
+    private final TrapStore traps;
+    private final int cellSize;
+    private final int chunksX;
+    private final int chunksY;
+    private final IntIntMap chunkSlots = new IntIntMap(); // Slot holding each built chunk, so memory depends on the slots, not the maze
+    private final Array<ChunkSlot> slots = new Array<>();
+    private SpriteCache cache; // Static tiles of all slots, created with the first frame
+    private long frame;
+
+    private Texture tiles;
+    private final TextureRegion floorRegion;
+    private final TextureRegion wallRegion;
+    private final TextureRegion backWallRegion;
+    private final TextureRegion entryRegion;
+
+    /**
+     * A built chunk: the ID of its static geometry in the cache and the dynamic cells it contains.
+     */
+    private static class ChunkSlot {
+        final int cacheId;
+        final IntArray dynamicCells = new IntArray(); // Packed as x, y pairs
+        int chunk = -1;
+        long lastUsedFrame = -1;
+
+        ChunkSlot(int cacheId) {
+            this.cacheId = cacheId;
+        }
+    }
+
+    /**
+     * Constructs a new MazeRenderer for the given maze.
+     *
+     * @param maze     The maze to be rendered.
+     * @param traps    The traps of the maze, drawn with their own animation time.
+     * @param cellSize The size of each cell in pixels.
+     */
+    public MazeRenderer(Maze maze, TrapStore traps, int cellSize) {
+        this.maze = maze;
+        this.traps = traps;
+        this.cellSize = cellSize;
+        this.chunksX = (maze.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (maze.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        this.tiles = Assets.acquire(Assets.BASIC_TILES);
+        this.floorRegion = Assets.region(Assets.BASIC_TILES, 16, 9*16, 16, 16);
+        this.wallRegion = Assets.region(Assets.BASIC_TILES, 32, 0, 16, 16);
+        this.backWallRegion = Assets.region(Assets.BASIC_TILES, 48, 0, 16, 16);
+        this.entryRegion = Assets.region(Assets.BASIC_TILES, 16, 16*11, 16, 16);
+    }
+
+    /**
+     * Renders the visible part of the maze. The batch must already be drawing;
+     * it is flushed so that the cached static tiles end up below the dynamic ones.
+     *
+     * @param camera The camera whose view determines the visible chunks.
+     * @param batch  The sprite batch used for the dynamic tiles.
+     */
+    public void render(OrthographicCamera camera, SpriteBatch batch) {
+        frame++;
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        float chunkPixels = CHUNK_SIZE * cellSize;
+
+        int firstX = Math.max(0, (int) Math.floor((camera.position.x - halfWidth) / chunkPixels));
+        int lastX = Math.min(chunksX - 1, (int) Math.floor((camera.position.x + halfWidth) / chunkPixels));
+        int firstY = Math.max(0, (int) Math.floor((camera.position.y - halfHeight) / chunkPixels));
+        int lastY = Math.min(chunksY - 1, (int) Math.floor((camera.position.y + halfHeight) / chunkPixels));
+        if (firstX > lastX || firstY > lastY) {
+            return; // Nothing of the maze is in view
+        }
+
+        // Build the visible chunks first, the cache cannot be redefined while it draws
+        ensureSlots((lastX - firstX + 1) * (lastY - firstY + 1));
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                slotFor(cx + cy * chunksX);
+            }
+        }
+
+        // Draw the cached static tiles below everything else
+        batch.end();
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                cache.draw(slots.get(chunkSlots.get(cx + cy * chunksX, -1)).cacheId);
+            }
+        }
+        cache.end();
+        batch.begin();
+
+        // Draw the dynamic tiles of the visible chunks
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                IntArray cells = slots.get(chunkSlots.get(cx + cy * chunksX, -1)).dynamicCells;
+                for (int i = 0; i < cells.size; i += 2) {
+                    renderDynamic(batch, cells.items[i], cells.items[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the slot holding a chunk, building the chunk into the least recently used slot if needed.
+     *
+     * @param chunk The index of the chunk.
+     * @return The slot holding the chunk.
+     */
+    private ChunkSlot slotFor(int chunk) {
+        int index = chunkSlots.get(chunk, -1);
+        if (index < 0) {
+            index = findFreeSlot();
+            ChunkSlot slot = slots.get(index);
+            if (slot.chunk >= 0) {
+                chunkSlots.remove(slot.chunk, -1); // Evict the previous chunk
+            }
+            buildChunk(slot, chunk);
+            chunkSlots.put(chunk, index);
+        }
+        ChunkSlot slot = slots.get(index);
+        slot.lastUsedFrame = frame;
+        return slot;
+    }
+
+    /**
+     * Makes sure the cache has at least the given number of slots. If it has not, it is created again with
+     * twice as many slots, which drops all built chunks; this only happens when the view grows.
+     *
+     * @param count The number of slots needed.
+     */
+    private void ensureSlots(int count) {
+        if (cache != null && slots.size >= count) {
+            return;
+        }
+        int capacity = Math.max(count, Math.max(INITIAL_SLOTS, slots.size * 2));
+        if (cache != null) {
+            cache.dispose();
+        }
+        cache = new SpriteCache(capacity * SPRITES_PER_CHUNK, false);
+        slots.clear();
+        chunkSlots.clear();
+        for (int i = 0; i < capacity; i++) {
+            // Reserve room for a full chunk, a cache ID can later be redefined with at most as many sprites
+            cache.beginCache();
+            for (int j = 0; j < SPRITES_PER_CHUNK; j++) {
+                cache.add(floorRegion, 0, 0, 0, 0);
+            }
+            slots.add(new ChunkSlot(cache.endCache()));
+        }
+    }
+
+    /**
+     * Finds the least recently used slot that is not drawn in the current frame.
+     * {@link #ensureSlots(int)} has made sure that there is one.
+     *
+     * @return The index of the slot.
+     */
+    private int findFreeSlot() {
+        int best = -1;
+        for (int i = 0; i < slots.size; i++) {
+            ChunkSlot slot = slots.get(i);
+            if (slot.lastUsedFrame != frame && (best < 0 || slot.lastUsedFrame < slots.get(best).lastUsedFrame)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds the static tiles of a chunk into the slot's cache and collects its dynamic cells.
+     *
+     * @param slot  The slot to build into.
+     * @param chunk The index of the chunk.
+     */
+    private void buildChunk(ChunkSlot slot, int chunk) {
+        int startX = (chunk % chunksX) * CHUNK_SIZE;
+        int startY = (chunk / chunksX) * CHUNK_SIZE;
+        int endX = Math.min(startX + CHUNK_SIZE, maze.getWidth());
+        int endY = Math.min(startY + CHUNK_SIZE, maze.getHeight());
+
+        slot.chunk = chunk;
+        slot.dynamicCells.clear();
+        cache.beginCache(slot.cacheId);
+        for (int x = startX; x < endX; x++) {
+            for (int y = startY; y < endY; y++) {
+                float cellX = x * cellSize;
+                float cellY = y * cellSize;
+                cache.add(floorRegion, cellX, cellY);
+                switch (maze.getType(x, y)) {
+                    case 0 -> cache.add(wallRegion, cellX, cellY);
+                    case 6 -> cache.add(backWallRegion, cellX, cellY);
+                    case 1 -> cache.add(entryRegion, cellX, cellY);
+                    case 2, 3, 5 -> slot.dynamicCells.add(x, y);
+                    default -> {
+                        // Enemies are rendered within GameScreen, empty cells only need the floor
+                    }
+                }
+            }
+        }
+        cache.endCache();
+    }
+
+    /**
+     * Renders a cell whose appearance changes over time.
+     *
+     * @param batch The sprite batch used for rendering.
+     * @param x     The x-coordinate of the cell in the maze.
+     * @param y     The y-coordinate of the cell in the maze.
+     */
+    private void renderDynamic(SpriteBatch batch, int x, int y) {
+        float cellX = x * cellSize;
+        float cellY = y * cellSize;
+        switch (maze.getType(x, y)) {
+            case 2 -> {
+                Cell cell = maze.getCell(x, y); // Null in a streamed maze until the chunk around it is active
+                if (cell != null) {
+                    cell.getExit().render(batch, cellX, cellY);
+                }
+            }
+            case 3 -> {
+                int trap = traps.findAt(x, y);
+                if (trap >= 0) {
+                    traps.render(batch, trap);
+                }
+            }
+            case 5 -> {
+                Cell cell = maze.getCell(x, y); // A streamed maze only has a cell for the key the game uses
+                if (cell != null) {
+                    cell.getKey().render(batch, cellX, cellY);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Gets the number of chunks currently built into caches.
+     *
+     * @return The number of built chunks.
+     */
+    public int getBuiltChunkCount() {
+        int count = 0;
+        for (ChunkSlot slot : slots) {
+            if (slot.chunk >= 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Disposes of the chunk cache with its shader and releases the shared tile texture.
+     */
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+            cache = null;
+        }
+        slots.clear();
+        chunkSlots.clear();
+        if (tiles != null) {
+            Assets.release(tiles);
+            tiles = null;
+        }
+    }
+}
@@ -2,10 +2,15 @@
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Array;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * The MazeRunnerGame class represents the core of the Maze Runner game.
  * It manages the screens and global resources like SpriteBatch and Skin.
@@ -15,18 +20,25 @@ public class MazeRunnerGame extends Game {
     private MenuScreen menuScreen;
     private GameScreen gameScreen;
     private MapSelectScreen mapSelectScreen;
+    private LoadingScreen loadingScreen;
     private WonScreen wonScreen;
     private LoseScreen loseScreen;
+    private final Array<Screen> retiredScreens = new Array<>(); // Disposed after the current frame, see retire()
 
     // Sprite Batch for rendering
     private SpriteBatch spriteBatch;
-    private AudioManager audioManager;
+    private AudioManager audioManager; // Shared by all screens, so every sound is only decoded once
+    private HighScores highScores; // Null if the score log cannot be opened
 
     // UI Skin
     private Skin skin;
 
     private Maze maze;
+    private String mazePath; // Path of the maze file being played
     private String playerName;
+    private Path recordingDirectory; // Directory the replays of all games are saved to, null to not record
+    private Replay replay; // Game to replay instead of letting the player play, null for normal play
+    private long loadStartNanos; // Start of the current level load, 0 once the first frame has been drawn
 
     /**
      * Constructor for MazeRunnerGame.
@@ -49,18 +61,30 @@ public void create() {
         this.audioManager = new AudioManager();
         audioManager.playBackgroundMusic();
 
-        goToMenu(); // Navigate to the menu screen
+        try {
+            highScores = HighScores.open(Gdx.files.local("scores.log").file().toPath());
+        } catch (IOException e) {
+            System.out.println("Error opening high scores: " + e.getMessage());
+        }
+
+        if (replay != null) {
+            playerName = "REPLAY";
+            goToLoading(replay.getMazePath()); // Go straight to the replayed game
+        } else {
+            goToMenu(); // Navigate to the menu screen
+        }
     }
 
     /**
      * Switches to the Main menu screen.
      */
     public void goToMenu() {
+        FlightEvents.ScreenTransition transition = beginTransition();
         menuScreen = new MenuScreen(this);
         this.setScreen(menuScreen); // Set the current screen to MenuScreen
 
         if (gameScreen != null) {
-            gameScreen.dispose(); // Dispose the game screen if it exists
+            retire(gameScreen); // Dispose the game screen if it exists
             gameScreen = null;
         }
 
@@ -76,57 +100,100 @@ public void goToMenu() {
 
         audioManager.playBackgroundMusic();
         audioManager.stopGameBackgroundMusic();
+        endTransition(transition);
+    }
+
+    /**
+     * Switches to the loading screen, which loads the given maze file and then starts the game.
+     *
+     * @param mapFilePath The path to the maze file.
+     */
+    public void goToLoading(String mapFilePath) {
+        FlightEvents.ScreenTransition transition = beginTransition();
+        loadStartNanos = System.nanoTime();
+        mazePath = mapFilePath;
+        loadingScreen = new LoadingScreen(this, mapFilePath);
+        this.setScreen(loadingScreen); // Set the current screen to LoadingScreen
+        endTransition(transition);
     }
 
     /**
      * Switches to the game screen.
      */
     public void goToGame() {
-        this.setScreen(new GameScreen(this)); // Set the current screen to GameScreen
+        FlightEvents.ScreenTransition transition = beginTransition();
+        if (gameScreen != null) {
+            retire(gameScreen);
+        }
+        gameScreen = new GameScreen(this);
+        this.setScreen(gameScreen); // Set the current screen to GameScreen
         if (mapSelectScreen != null) {
 
             mapSelectScreen.dispose(); // Dispose the menu screen if it exists
             mapSelectScreen = null;
         }
 
+        if (loadingScreen != null) {
+            loadingScreen.dispose(); // Dispose the loading screen if it exists
+            loadingScreen = null;
+        }
+
         audioManager.stopBackgroundMusic();
         audioManager.playGameBackgroundMusic();
-
+        endTransition(transition);
     }
     /**
-     * Switches to the won menu screen.
+     * Switches to the won menu screen and saves the high score of the game.
+     *
+     * @param ticks The length of the won game in ticks, or 0 if it does not count for the high scores.
      */
-    public void goToWonMenu() {
-        this.setScreen(new WonScreen(this)); // Set the current screen to GameScreen
+    public void goToWonMenu(int ticks) {
+        FlightEvents.ScreenTransition transition = beginTransition();
+        int rank = 0;
+        if (ticks > 0 && highScores != null) {
+            try {
+                rank = highScores.add(HighScores.mapOf(mazePath), playerName == null ? "" : playerName, ticks);
+            } catch (IOException e) {
+                System.out.println("Error saving high score: " + e.getMessage());
+            }
+        }
+        this.setScreen(new WonScreen(this, ticks, rank)); // Set the current screen to GameScreen
         if (gameScreen != null) {
-
-            gameScreen.dispose(); // Dispose the menu screen if it exists
+            retire(gameScreen); // Dispose the game screen if it exists
             gameScreen = null;
         }
 
-        audioManager.playVictorySound();
-
+        audioManager.post(AudioManager.VICTORY);
+        endTransition(transition);
     }
     /**
      * Switches to the lose menu screen.
      */
     public void goToloseMenu() {
+        FlightEvents.ScreenTransition transition = beginTransition();
         this.setScreen(new LoseScreen(this)); // Set the current screen to GameScreen
         if (gameScreen != null) {
-
-            gameScreen.dispose(); // Dispose the menu screen if it exists
+            retire(gameScreen); // Dispose the game screen if it exists
             gameScreen = null;
         }
 
-        audioManager.playGameOverSound();
-
+        audioManager.post(AudioManager.GAME_OVER);
+        endTransition(transition);
     }
     /**
      * Switches to the Map Selection screen.
      */
     public void goToMapSelection() {
+        goToMapSelection(null);
+    }
 
-
+    /**
+     * Switches to the Map Selection screen, showing why the chosen maze could not be played.
+     *
+     * @param error The error to show above the maps, or null for none.
+     */
+    public void goToMapSelection(String error) {
+        FlightEvents.ScreenTransition transition = beginTransition();
         if (menuScreen != null) {
             playerName = menuScreen.getPlayerName();
             if (playerName!=null) {
@@ -137,11 +204,90 @@ public void goToMapSelection() {
             menuScreen = null;
         }
 
+        if (mapSelectScreen != null) {
+            mapSelectScreen.dispose(); // Dispose the previous map selection, e.g. after a failed load
+        }
+
+        if (gameScreen != null) {
+            retire(gameScreen); // Leaving the game through the pause menu
+            gameScreen = null;
+        }
+
         // Create the MapSelectScreen before setting the player name
-        MapSelectScreen mapSelectScreen = new MapSelectScreen(this);
+        mapSelectScreen = new MapSelectScreen(this, error);
 
         // Set the current screen to MapSelectScreen
         this.setScreen(mapSelectScreen);
+
+        if (loadingScreen != null) {
+            loadingScreen.dispose(); // Dispose the loading screen if loading failed
+            loadingScreen = null;
+        }
+        endTransition(transition);
+    }
+
+    /**
+     * Disposes a screen once the current frame has been rendered. The game screen switches screens from within
+     * its own render method and keeps drawing until it returns, so it must not be disposed right away.
+     *
+     * @param screen The screen that is no longer shown.
+     */
+    private void retire(Screen screen) {
+        retiredScreens.add(screen);
+    }
+
+    /**
+     * Starts timing a screen transition for the flight recorder.
+     *
+     * @return The event to pass to {@link #endTransition(FlightEvents.ScreenTransition)}.
+     */
+    private FlightEvents.ScreenTransition beginTransition() {
+        FlightEvents.ScreenTransition transition = new FlightEvents.ScreenTransition();
+        transition.begin();
+        transition.from = getScreen() == null ? null : getScreen().getClass().getSimpleName();
+        return transition;
+    }
+
+    /**
+     * Records a screen transition if a flight recording is running.
+     *
+     * @param transition The event returned by {@link #beginTransition()} before the screen was switched.
+     */
+    private void endTransition(FlightEvents.ScreenTransition transition) {
+        transition.end();
+        if (transition.shouldCommit()) {
+            transition.to = getScreen() == null ? null : getScreen().getClass().getSimpleName();
+            transition.commit();
+        }
+    }
+
+    /**
+     * Records the time from choosing a level to its first rendered frame if a flight recording is running.
+     * Called by the game screen after every frame; only the first call after a load records anything.
+     */
+    public void reportFirstFrame() {
+        if (loadStartNanos != 0) {
+            FlightEvents.FirstFrame event = new FlightEvents.FirstFrame();
+            if (event.shouldCommit()) {
+                event.file = mazePath;
+                event.time = System.nanoTime() - loadStartNanos;
+                event.commit();
+            }
+            loadStartNanos = 0;
+        }
+    }
+
+    /**
+     * Renders the current screen, then plays the sounds posted while it was rendered.
+     */
+    @Override
+    public void render() {
+        super.render();
+        audioManager.update(Gdx.graphics.getDeltaTime());
+        for (Screen screen : retiredScreens) {
+            screen.dispose();
+        }
+        retiredScreens.clear();
     }
 
     /**
@@ -151,8 +297,19 @@ public void goToMapSelection() {
     public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
+        for (Screen screen : retiredScreens) {
+            screen.dispose();
+        }
+        retiredScreens.clear();
         spriteBatch.dispose(); // Dispose the spriteBatch
         skin.dispose(); // Dispose the skin
+        audioManager.dispose(); // Dispose the music and sounds
+        if (highScores != null) {
+            highScores.close();
+        }
+        if (maze != null) {
+            maze.close(); // A streamed maze keeps its file open
+        }
     }
 
     // Getter methods
@@ -164,11 +321,27 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
 
+    public AudioManager getAudioManager() {
+        return audioManager;
+    }
+
+    public HighScores getHighScores() {
+        return highScores;
+    }
+
     public Maze getMaze() {
         return maze;
     }
 
+    /**
+     * Sets the maze to play, closing the file of the previous maze if it was streamed.
+     *
+     * @param maze The loaded maze.
+     */
     public void setMaze(Maze maze) {
+        if (this.maze != null && this.maze != maze) {
+            this.maze.close();
+        }
         this.maze = maze;
     }
 
@@ -176,4 +349,34 @@ public String getPlayerName() {
         return playerName;
     }
 
+    public String getMazePath() {
+        return mazePath;
+    }
+
+    public Path getRecordingDirectory() {
+        return recordingDirectory;
+    }
+
+    /**
+     * Records the input of every game, so that it can be replayed.
+     *
+     * @param recordingDirectory The directory to save the replays to.
+     */
+    public void setRecordingDirectory(Path recordingDirectory) {
+        this.recordingDirectory = recordingDirectory;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Replays a recorded game instead of showing the menu. Must be set before the game is created.
+     *
+     * @param replay The recorded game.
+     */
+    public void setReplay(Replay replay) {
+        this.replay = replay;
+    }
+
 }
@@ -0,0 +1,475 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Queue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * The Pathfinder class finds shortest routes between two cells of the maze with A*.
+ * <p>
+ * Routes are requested with {@link #findPath(int, int, int, int)} and computed in {@link #update()}, which is called
+ * once per frame and expands at most a fixed number of nodes, so a long search is spread over several frames instead
+ * of stalling the render loop. The open set is a binary heap of primitive ints and the closed set is a bitset.
+ * Recently found routes are kept in a least-recently-used cache and returned immediately when requested again.
+ * A search is confined to a square window around its start and goal, so that the arrays of the search stay
+ * small however large the maze is; routes that leave the window are not found.
+ * The time from request to result is recorded so that its median and 99th percentile can be shown in the
+ * {@link PerformanceOverlay}.
+ */
+public class Pathfinder {
+    private static final int[] NEIGHBOUR_X = {1, -1, 0, 0};
+    private static final int[] NEIGHBOUR_Y = {0, 0, 1, -1};
+    private static final int LATENCY_SAMPLES = 1024;
+    public static final int DEFAULT_WINDOW = 512; // Side length in cells of the window of a search by default
+
+    private final Maze maze;
+    private final int windowWidth; // Size of the window searches are confined to
+    private final int windowHeight;
+    private final int nodeBudget;
+    private final Map<RouteKey, Route> cache;
+    private final Queue<Route> pending = new Queue<>();
+
+    // State of the search in progress, kept between frames
+    private Route active;
+    private final BitSet closed;
+    private final int[] costs; // Cost from the start, valid only where the stamp matches
+    private final int[] stamps; // Search that last reached each cell
+    private final int[] parents;
+    private int[] heapNodes;
+    private int[] heapKeys;
+    private int heapSize;
+    private int search;
+
+    // Statistics
+    private final long[] latencies = new long[LATENCY_SAMPLES]; // Ring buffer of request-to-result times
+    private final long[] sortedLatencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int searches;
+    private int cacheHits;
+
+    /**
+     * A route requested from the pathfinder. It is pending until the search has finished,
+     * after which it either holds the cells from start to goal or reports that the goal is unreachable.
+     */
+    public static class Route {
+        private final RouteKey key;
+        private final long requestNanos;
+        private int originX; // Bottom-left cell of the window the route was searched in
+        private int originY;
+        private int height; // Height of the window
+        private int start; // Index of the start cell in the window, (x - originX) * height + y - originY
+        private int goal;
+        private boolean done;
+        private int[] cells; // Cell indices in the window from start to goal, null if no route exists
+
+        private Route(RouteKey key) {
+            this.key = key;
+            this.requestNanos = System.nanoTime();
+        }
+
+        /**
+         * Checks whether the search for this route has finished.
+         *
+         * @return True if the route is found or known to be unreachable, false while it is still pending.
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Checks whether a route was found.
+         *
+         * @return True if the search has finished and found a route, false otherwise.
+         */
+        public boolean isFound() {
+            return cells != null;
+        }
+
+        /**
+         * Gets the number of cells on the route, including the start and the goal.
+         *
+         * @return The number of cells, 0 if no route was found.
+         */
+        public int getLength() {
+            return cells == null ? 0 : cells.length;
+        }
+
+        /**
+         * Gets the x-coordinate of a cell on the route.
+         *
+         * @param i The position of the cell on the route, 0 being the start.
+         * @return The x-coordinate of the cell.
+         */
+        public int getX(int i) {
+            return originX + cells[i] / height;
+        }
+
+        /**
+         * Gets the y-coordinate of a cell on the route.
+         *
+         * @param i The position of the cell on the route, 0 being the start.
+         * @return The y-coordinate of the cell.
+         */
+        public int getY(int i) {
+            return originY + cells[i] % height;
+        }
+
+        /**
+         * Takes over the cells of a route found earlier between the same cells.
+         *
+         * @param found The earlier route.
+         */
+        private void copyCells(Route found) {
+            originX = found.originX;
+            originY = found.originY;
+            height = found.height;
+            cells = found.cells;
+            done = true;
+        }
+    }
+
+    /**
+     * The start and goal cells of a route, the key of the route cache.
+     */
+    private static final class RouteKey {
+        private final int startX;
+        private final int startY;
+        private final int goalX;
+        private final int goalY;
+
+        RouteKey(int startX, int startY, int goalX, int goalY) {
+            this.startX = startX;
+            this.startY = startY;
+            this.goalX = goalX;
+            this.goalY = goalY;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RouteKey key && key.startX == startX && key.startY == startY
+                    && key.goalX == goalX && key.goalY == goalY;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((startX * 31 + startY) * 31 + goalX) * 31 + goalY;
+        }
+    }
+
+    /**
+     * Constructs a new Pathfinder for the given maze whose searches are confined to a window of
+     * {@link #DEFAULT_WINDOW} cells.
+     *
+     * @param maze       The maze whose walls block the routes.
+     * @param nodeBudget The maximum number of nodes expanded per call to {@link #update()}.
+     * @param cacheSize  The maximum number of routes kept in the cache.
+     */
+    public Pathfinder(Maze maze, int nodeBudget, int cacheSize) {
+        this(maze, nodeBudget, cacheSize, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructs a new Pathfinder for the given maze whose searches are confined to a square window.
+     *
+     * @param maze       The maze whose walls block the routes.
+     * @param nodeBudget The maximum number of nodes expanded per call to {@link #update()}.
+     * @param cacheSize  The maximum number of routes kept in the cache.
+     * @param windowSize The side length in cells of the window around start and goal that a search may cover.
+     */
+    public Pathfinder(Maze maze, int nodeBudget, int cacheSize, int windowSize) {
+        this.maze = maze;
+        this.windowWidth = Math.min(maze.getWidth(), windowSize);
+        this.windowHeight = Math.min(maze.getHeight(), windowSize);
+        this.nodeBudget = nodeBudget;
+        this.cache = new LinkedHashMap<>(cacheSize * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, Route> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        int cells = Math.multiplyExact(windowWidth, windowHeight);
+        this.closed = new BitSet(cells);
+        this.costs = new int[cells];
+        this.stamps = new int[cells];
+        this.parents = new int[cells];
+        this.heapNodes = new int[64];
+        this.heapKeys = new int[64];
+    }
+
+    /**
+     * Requests the shortest route between two cells. Cached routes are returned already done;
+     * otherwise the route is queued and computed by later calls to {@link #update()}.
+     *
+     * @param startX The x-coordinate of the start cell.
+     * @param startY The y-coordinate of the start cell.
+     * @param goalX  The x-coordinate of the goal cell.
+     * @param goalY  The y-coordinate of the goal cell.
+     * @return The requested route.
+     */
+    public Route findPath(int startX, int startY, int goalX, int goalY) {
+        Route route = new Route(new RouteKey(startX, startY, goalX, goalY));
+        if (maze.isWall(startX, startY) || maze.isWall(goalX, goalY)) {
+            route.done = true; // Walls and cells outside the maze cannot be part of a route
+            return route;
+        }
+        // Center the window between start and goal, within the maze
+        route.originX = Math.max(0, Math.min(maze.getWidth() - windowWidth, (int) (((long) startX + goalX) / 2) - windowWidth / 2));
+        route.originY = Math.max(0, Math.min(maze.getHeight() - windowHeight, (int) (((long) startY + goalY) / 2) - windowHeight / 2));
+        route.height = windowHeight;
+        if (!isInWindow(route, startX, startY) || !isInWindow(route, goalX, goalY)) {
+            route.done = true; // Too far apart for the window
+            return route;
+        }
+        route.start = (startX - route.originX) * windowHeight + startY - route.originY;
+        route.goal = (goalX - route.originX) * windowHeight + goalY - route.originY;
+        Route found = cache.get(route.key);
+        if (found != null) {
+            cacheHits++;
+            route.copyCells(found);
+            return route;
+        }
+        pending.addLast(route);
+        return route;
+    }
+
+    /**
+     * Checks whether a cell lies within the window of a route.
+     *
+     * @param route The route.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @return True if the cell is in the window, false otherwise.
+     */
+    private boolean isInWindow(Route route, int x, int y) {
+        return x >= route.originX && x - route.originX < windowWidth && y >= route.originY && y - route.originY < windowHeight;
+    }
+
+    /**
+     * Drops the pending searches and the cached routes, so that routes arrive after the same number of
+     * updates as in a new pathfinder. The statistics are kept.
+     */
+    public void clear() {
+        pending.clear();
+        active = null;
+        heapSize = 0;
+        cache.clear();
+    }
+
+    /**
+     * Continues the pending searches, expanding at most the node budget.
+     */
+    public void update() {
+        int budget = nodeBudget;
+        while (budget > 0) {
+            if (active == null) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                start(pending.removeFirst());
+                if (active == null) {
+                    continue; // Answered from the cache by an earlier search
+                }
+            }
+            budget = expand(budget);
+        }
+    }
+
+    /**
+     * Starts the search for a route, unless an earlier search has cached it in the meantime.
+     *
+     * @param route The route to search.
+     */
+    private void start(Route route) {
+        Route found = cache.get(route.key);
+        if (found != null) {
+            cacheHits++;
+            route.copyCells(found);
+            finish(route, found.cells);
+            return;
+        }
+        active = route;
+        search++;
+        closed.clear();
+        heapSize = 0;
+        stamps[route.start] = search;
+        costs[route.start] = 0;
+        parents[route.start] = -1;
+        push(route.start, heuristic(route.start, route.goal));
+    }
+
+    /**
+     * Expands nodes of the active search until it finishes or the budget is used up.
+     *
+     * @param budget The number of nodes that may still be expanded in this frame.
+     * @return The remaining budget.
+     */
+    private int expand(int budget) {
+        Route route = active;
+        while (heapSize > 0 && budget > 0) {
+            int node = pop();
+            if (closed.get(node)) {
+                continue; // Stale heap entry of a node that was reached more cheaply
+            }
+            if (node == route.goal) {
+                finish(route, tracePath(node));
+                return budget;
+            }
+            closed.set(node);
+            budget--;
+
+            int x = node / windowHeight;
+            int y = node % windowHeight;
+            int cost = costs[node] + 1;
+            for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+                int nx = x + NEIGHBOUR_X[i];
+                int ny = y + NEIGHBOUR_Y[i];
+                if (nx < 0 || nx >= windowWidth || ny < 0 || ny >= windowHeight
+                        || maze.isWall(route.originX + nx, route.originY + ny)) {
+                    continue; // Also covers cells outside the maze
+                }
+                int next = nx * windowHeight + ny;
+                if (closed.get(next) || (stamps[next] == search && costs[next] <= cost)) {
+                    continue;
+                }
+                stamps[next] = search;
+                costs[next] = cost;
+                parents[next] = node;
+                push(next, cost + heuristic(next, route.goal));
+            }
+        }
+        if (heapSize == 0) {
+            finish(route, null); // Every reachable cell was searched without finding the goal
+        }
+        return budget;
+    }
+
+    /**
+     * Completes a route, caches it and records its latency.
+     *
+     * @param route The finished route.
+     * @param cells The cells of the route, null if the goal is unreachable.
+     */
+    private void finish(Route route, int[] cells) {
+        route.cells = cells;
+        route.done = true;
+        if (route == active) {
+            active = null;
+            searches++;
+            if (cells != null) {
+                cache.put(route.key, route);
+            }
+        }
+        latencies[latencyCount++ % LATENCY_SAMPLES] = System.nanoTime() - route.requestNanos;
+    }
+
+    /**
+     * Follows the parents from the goal back to the start.
+     *
+     * @param goal The goal cell.
+     * @return The cells from start to goal.
+     */
+    private int[] tracePath(int goal) {
+        int[] cells = new int[costs[goal] + 1];
+        for (int node = goal, i = cells.length - 1; node >= 0; node = parents[node], i--) {
+            cells[i] = node;
+        }
+        return cells;
+    }
+
+    /**
+     * Gets the Manhattan distance between two cells, which never overestimates the walking distance.
+     *
+     * @param from The index of the first cell in the window.
+     * @param to   The index of the second cell in the window.
+     * @return The Manhattan distance in cells.
+     */
+    private int heuristic(int from, int to) {
+        return Math.abs(from / windowHeight - to / windowHeight) + Math.abs(from % windowHeight - to % windowHeight);
+    }
+
+    /**
+     * Adds a node to the open set.
+     *
+     * @param node The index of the cell.
+     * @param key  The estimated total cost of a route through the cell.
+     */
+    private void push(int node, int key) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            heapNodes[i] = heapNodes[parent];
+            heapKeys[i] = heapKeys[parent];
+            i = parent;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    /**
+     * Removes the node with the smallest key from the open set.
+     *
+     * @return The index of the removed cell.
+     */
+    private int pop() {
+        int top = heapNodes[0];
+        heapSize--;
+        int node = heapNodes[heapSize];
+        int key = heapKeys[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            heapNodes[i] = heapNodes[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+        return top;
+    }
+
+    /**
+     * Gets a percentile of the request-to-result latency over the most recent routes.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The latency in nanoseconds, 0 if no route has finished yet.
+     */
+    public long getLatencyPercentile(double percentile) {
+        int count = Math.min(latencyCount, LATENCY_SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(latencies, 0, sortedLatencies, 0, count);
+        Arrays.sort(sortedLatencies, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sortedLatencies[Math.max(0, Math.min(count - 1, rank))];
+    }
+
+    public int getSearches() {
+        return searches;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+}
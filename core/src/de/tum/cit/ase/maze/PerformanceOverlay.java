@@ -0,0 +1,198 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+
+/**
+ * The PerformanceOverlay class shows where the frame time goes: FPS, frame time percentiles, the time of each
+ * {@link FrameProfiler} phase, the searches and route latency of the {@link Pathfinder}, sprite batch render calls,
+ * OpenGL draw calls and texture binds, heap usage and garbage collections. The numbers are averaged and the
+ * text is rebuilt every {@link #REFRESH_INTERVAL} seconds.
+ * <p>
+ * While the overlay is hidden the frame profiler is disabled and OpenGL calls are not intercepted,
+ * so the game runs as if the overlay did not exist.
+ */
+public class PerformanceOverlay {
+    private static final float REFRESH_INTERVAL = 0.5f; // Seconds between updates of the text
+    private static final float TOP = 800; // Screen y-coordinate of the first line, below the player's name
+
+    private final FrameProfiler profiler;
+    private final Pathfinder pathfinder;
+    private final BitmapFont font;
+    private final StringBuilder text = new StringBuilder(512);
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private GLProfiler glProfiler; // Counts OpenGL calls while the overlay is shown
+
+    private float sinceRefresh;
+    private int frames; // Frames since the last refresh
+    private long renderCalls;
+    private long drawCalls;
+    private long textureBindings;
+    private int lastGameRenderCalls;
+    private int lastHudRenderCalls;
+    private boolean counting; // False until the batch counters of a first frame have been seen
+
+    /**
+     * Constructs a new hidden PerformanceOverlay.
+     *
+     * @param profiler   The profiler timing the phases of the frame.
+     * @param pathfinder The pathfinder whose route latency is shown.
+     * @param font       The font to draw the numbers with.
+     */
+    public PerformanceOverlay(FrameProfiler profiler, Pathfinder pathfinder, BitmapFont font) {
+        this.profiler = profiler;
+        this.pathfinder = pathfinder;
+        this.font = font;
+        profiler.setEnabled(false);
+    }
+
+    /**
+     * Shows the overlay if it is hidden, hides it otherwise.
+     */
+    public void toggle() {
+        setVisible(!profiler.isEnabled());
+    }
+
+    /**
+     * Shows or hides the overlay. Does nothing if the overlay already is in that state, so OpenGL calls are
+     * intercepted at most once.
+     *
+     * @param visible True to show the overlay, false to hide it.
+     */
+    public void setVisible(boolean visible) {
+        if (visible == profiler.isEnabled()) {
+            return;
+        }
+        profiler.setEnabled(visible);
+        if (visible) {
+            if (glProfiler == null) {
+                glProfiler = new GLProfiler(Gdx.graphics);
+            }
+            glProfiler.enable();
+            glProfiler.reset();
+            sinceRefresh = REFRESH_INTERVAL; // Build the text on the next frame
+            frames = 0;
+            renderCalls = drawCalls = textureBindings = 0;
+            counting = false;
+            text.setLength(0);
+        } else if (glProfiler != null) {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Collects the counters of the frame that has just been drawn and refreshes the text when it is due.
+     * Does nothing while the overlay is hidden.
+     *
+     * @param delta     The time passed since the last frame (in seconds).
+     * @param gameBatch The sprite batch the game world is drawn with.
+     * @param hudBatch  The sprite batch the HUD is drawn with.
+     */
+    public void update(float delta, SpriteBatch gameBatch, SpriteBatch hudBatch) {
+        if (!profiler.isEnabled()) {
+            return;
+        }
+        if (counting) {
+            frames++;
+            renderCalls += gameBatch.totalRenderCalls - lastGameRenderCalls + hudBatch.totalRenderCalls - lastHudRenderCalls;
+        }
+        counting = true;
+        lastGameRenderCalls = gameBatch.totalRenderCalls;
+        lastHudRenderCalls = hudBatch.totalRenderCalls;
+        drawCalls += glProfiler.getDrawCalls();
+        textureBindings += glProfiler.getTextureBindings();
+        glProfiler.reset();
+
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            refresh();
+            sinceRefresh = 0f;
+            frames = 0;
+            renderCalls = drawCalls = textureBindings = 0;
+            profiler.reset();
+        }
+    }
+
+    /**
+     * Rebuilds the text from the numbers collected since the last refresh.
+     */
+    private void refresh() {
+        int perFrame = Math.max(1, frames);
+        text.setLength(0);
+        text.append("FPS ").append(Gdx.graphics.getFramesPerSecond()).append("   frame p50 ");
+        appendMillis(profiler.getFrameNanosPercentile(50));
+        text.append("  p95 ");
+        appendMillis(profiler.getFrameNanosPercentile(95));
+        text.append("  p99 ");
+        appendMillis(profiler.getFrameNanosPercentile(99));
+        text.append(" ms\n");
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+            text.append(FrameProfiler.getPhaseName(phase)).append(' ');
+            appendMillis(profiler.getPhaseNanos(phase));
+            text.append(" ms\n");
+        }
+        text.append("Routes ").append(pathfinder.getSearches()).append(" searched, ")
+                .append(pathfinder.getCacheHits()).append(" cached   latency p50 ");
+        appendMillis(pathfinder.getLatencyPercentile(50));
+        text.append("  p99 ");
+        appendMillis(pathfinder.getLatencyPercentile(99));
+        text.append(" ms\n");
+        text.append("Batch calls ").append(renderCalls / perFrame)
+                .append("   GL draw calls ").append(drawCalls / perFrame)
+                .append("   texture binds ").append(textureBindings / perFrame).append('\n');
+
+        Runtime runtime = Runtime.getRuntime();
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            gcCount += Math.max(0, collectors.get(i).getCollectionCount());
+            gcMillis += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        text.append("Heap ").append((runtime.totalMemory() - runtime.freeMemory()) >> 20)
+                .append(" / ").append(runtime.maxMemory() >> 20).append(" MB   GC ")
+                .append(gcCount).append(" (").append(gcMillis).append(" ms)");
+    }
+
+    /**
+     * Appends a duration in milliseconds with three decimals, without allocating.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    private void appendMillis(long nanos) {
+        long micros = (nanos + 500) / 1_000;
+        text.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            text.append('0');
+        }
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
+    /**
+     * Draws the overlay in the top-left corner of the screen. Does nothing while the overlay is hidden.
+     *
+     * @param hudBatch The HUD sprite batch, which must already be drawing in screen coordinates.
+     */
+    public void render(SpriteBatch hudBatch) {
+        if (profiler.isEnabled()) {
+            font.draw(hudBatch, text, 10, TOP);
+        }
+    }
+
+    /**
+     * Hides the overlay, which stops intercepting OpenGL calls.
+     */
+    public void dispose() {
+        setVisible(false);
+    }
+}
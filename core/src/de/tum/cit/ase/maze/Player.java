@@ -1,11 +1,8 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.g2d.Animation;
 
 /**
@@ -14,9 +11,11 @@
  */
 public class Player {
     private Vector2 position;
-    private final Texture playerTexture;
-    private final Sprite spritePlayer;
-    private final Sprite spriteEntry;
+    private final Vector2 previousPosition = new Vector2(); // Position at the start of the current simulation tick
+    private Texture playerTexture;
+    private Texture entryTexture;
+    private TextureRegion spritePlayer;
+    private TextureRegion spriteEntry;
     private final float playerSpeed = 40f;
     private boolean gotKey = false;
     private int lives;
@@ -27,6 +26,8 @@ public class Player {
 
     private float lastCollisionTime = -2.0f; // Initialize to -2.0 so that the first collision can occur immediately
 
+    public static final int STARTING_LIVES = 5; // Lives of a player who does not cheat
+
     /**
      * Constructs a new Player instance with the specified initial position.
      *
@@ -34,23 +35,30 @@ public class Player {
      */
     public Player(Vector2 position) {
         this.position = position;
+        lives=STARTING_LIVES;
+    }
 
-        this.playerTexture = new Texture(Gdx.files.internal("character.png"));
-        this.spritePlayer = new Sprite(playerTexture,0,0,16,32);
-        Texture entryTexture = new Texture(Gdx.files.internal("basictiles.png"));
-        this.spriteEntry = new Sprite(entryTexture,16,16*11,16,16);
+    /**
+     * Loads the player's sprites and animations on first use, so that a player can be
+     * simulated without an OpenGL context.
+     */
+    private void loadGraphics() {
+        if (playerTexture != null) {
+            return;
+        }
+        this.playerTexture = Assets.acquire(Assets.CHARACTER);
+        this.spritePlayer = Assets.region(Assets.CHARACTER,0,0,16,32);
+        this.entryTexture = Assets.acquire(Assets.BASIC_TILES);
+        this.spriteEntry = Assets.region(Assets.BASIC_TILES,16,16*11,16,16);
         int frameWidth = 16;
         int frameHeight = 32;
         int animationFrames = 4;
-        lives=5;
 
         // Initialize animations for each direction
         characterDownAnimation = createAnimation(0, 0,frameWidth, frameHeight, animationFrames);
         characterUpAnimation = createAnimation(2, 0,frameWidth, frameHeight, animationFrames);
         characterLeftAnimation = createAnimation(3, 0,frameWidth, frameHeight, animationFrames);
         characterRightAnimation = createAnimation(1, 0,frameWidth, frameHeight, animationFrames);
-
-
     }
     /**
      * Creates a new animation based on the specified parameters.
@@ -63,11 +71,8 @@ public Player(Vector2 position) {
      * @return The created animation.
      */
     private Animation<TextureRegion> createAnimation(int row, int column, int frameWidth, int frameHeight, int frames) {
-        Array<TextureRegion> walkFrames = new Array<>(TextureRegion.class);
-        for (int col = column; col < frames; col++) {
-            walkFrames.add(new TextureRegion(playerTexture, col * frameWidth, row * frameHeight, frameWidth, frameHeight));
-        }
-        return new Animation<>(0.1f, walkFrames, Animation.PlayMode.LOOP);
+        return Assets.animation(Assets.CHARACTER, column * frameWidth, row * frameHeight, frameWidth, frameHeight,
+                frames - column, 0.1f);
     }
 
     /**
@@ -81,6 +86,49 @@ public void move(float deltaX, float deltaY) {
         position.y += deltaY;
     }
 
+    /**
+     * Puts the player back at its starting position with the given lives, without the key.
+     *
+     * @param x     The x-coordinate of the starting position.
+     * @param y     The y-coordinate of the starting position.
+     * @param lives The number of lives.
+     */
+    public void reset(float x, float y, int lives) {
+        position.set(x, y);
+        previousPosition.set(x, y);
+        this.lives = lives;
+        gotKey = false;
+        lastCollisionTime = -2.0f;
+    }
+
+    /**
+     * Remembers the current position as the position at the start of a simulation tick.
+     * Called before every tick, so that rendering can interpolate between two ticks.
+     */
+    public void savePosition() {
+        previousPosition.set(position);
+    }
+
+    /**
+     * Gets the x-coordinate at which to draw the player between two simulation ticks.
+     *
+     * @param alpha The fraction of the tick that has passed, from 0 to 1.
+     * @return The interpolated x-coordinate.
+     */
+    public float getRenderX(float alpha) {
+        return previousPosition.x + (position.x - previousPosition.x) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate at which to draw the player between two simulation ticks.
+     *
+     * @param alpha The fraction of the tick that has passed, from 0 to 1.
+     * @return The interpolated y-coordinate.
+     */
+    public float getRenderY(float alpha) {
+        return previousPosition.y + (position.y - previousPosition.y) * alpha;
+    }
+
     /**
      * Renders the entry point.
      *
@@ -89,6 +137,7 @@ public void move(float deltaX, float deltaY) {
      * @param y           The y-coordinate for rendering.
      */
     public void renderEntry(SpriteBatch spriteBatch, float x, float y) {
+        loadGraphics();
         spriteBatch.draw(spriteEntry, x, y);
     }
 
@@ -98,45 +147,31 @@ public void renderEntry(SpriteBatch spriteBatch, float x, float y) {
      * Checks if the player is colliding with walls.
      *
      * @param position The current position of the player.
-     * @param walls    The array of walls in the game.
+     * @param maze     The maze holding the walls.
      * @return True if colliding with walls, false otherwise.
      */
 
-    public boolean isCollidingWithWalls(Vector2 position, Array<Wall> walls) {
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
-
-        for (Wall wall : walls) {
-            Rectangle wallRect = new Rectangle(wall.getPosition().x, wall.getPosition().y, 12, 12);
-            if (playerRect.overlaps(wallRect)) {
-                return true; // Collision detected with at least one wall
-            }
-        }
-
-        return false; // No collision with any wall
+    public boolean isCollidingWithWalls(Vector2 position, Maze maze) {
+        return maze.overlapsWall(position.x, position.y, 12, 10, 12);
     }
 
     /**
      * Checks if the player is colliding with traps.
      *
      * @param position The current position of the player.
-     * @param traps    The array of traps in the game.
+     * @param maze     The maze holding the traps.
      * @param delta    The time passed since the last frame.
      * @return True if colliding with traps, false otherwise.
      */
-    public boolean isCollidingWithTraps(Vector2 position, Array<Trap> traps, float delta) {
+    public boolean isCollidingWithTraps(Vector2 position, Maze maze, float delta) {
         // Update the time since the last collision
         lastCollisionTime += delta;
 
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
-
-        for (Trap trap : traps) {
-            Rectangle rect = new Rectangle(trap.getPosition().x, trap.getPosition().y, 5, 5);
-            if (playerRect.overlaps(rect)) {
-                if (lastCollisionTime >= 2.0f) {
-                    lives--;
-                    lastCollisionTime = 0; // Reset the timer
-                    return true; // Collision detected with at least one trap
-                }
+        if (maze.overlapsTrap(position.x, position.y, 12, 10, 5)) {
+            if (lastCollisionTime >= 2.0f) {
+                lives--;
+                lastCollisionTime = 0; // Reset the timer
+                return true; // Collision detected with at least one trap
             }
         }
 
@@ -148,37 +183,32 @@ public boolean isCollidingWithTraps(Vector2 position, Array<Trap> traps, float d
      * Checks if the player is colliding with enemies.
      *
      * @param position The current position of the player.
-     * @param enemies  The array of enemies in the game.
+     * @param enemies  The wandering enemies in the game.
      * @param yovuz    The intelligent enemy in the game.
      * @param delta    The time passed since the last frame.
      * @return True if colliding with enemies, false otherwise.
      */
-    public boolean isCollidingWithEnemies (Vector2 position, Array<Enemy> enemies, IntelligentEnemy yovuz, float delta) {
+    public boolean isCollidingWithEnemies (Vector2 position, EnemyStore enemies, IntelligentEnemy yovuz, float delta) {
         // Update the time since the last collision
         lastCollisionTime += delta;
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
-
-        for (Enemy enemy : enemies) {
-            Rectangle rect = new Rectangle(enemy.getPosition().x, enemy.getPosition().y, 5, 5);
-            if (playerRect.overlaps(rect)) {
-                if (lastCollisionTime >= 2.0f) {
-                    lives--;
-                    lastCollisionTime = 0; // Reset the timer
-                    return true; // Collision detected with at least one enemy
-                }
+
+        if (enemies.findOverlapping(position.x, position.y, 12, 10, 5) >= 0) {
+            if (lastCollisionTime >= 2.0f) {
+                lives--;
+                lastCollisionTime = 0; // Reset the timer
+                return true; // Collision detected with at least one enemy
             }
         }
 
-        Rectangle rect = new Rectangle(yovuz.getPosition().x, yovuz.getPosition().y, 5, 5);
-        if (playerRect.overlaps(rect)) {
+        Vector2 yovuzPosition = yovuz.getPosition();
+        if (SpatialGrid.overlaps(position.x, position.y, 12, 10, yovuzPosition.x, yovuzPosition.y, 5, 5)) {
             if (lastCollisionTime >= 3.0f) {
                 lives--;
                 lastCollisionTime = 0; // Reset the timer
                 return true; // Collision detected with at least one enemy
             }
-        return false; // No collision with any enemy
         }
-        return false;
+        return false; // No collision with any enemy
     }
 
 
@@ -196,47 +226,27 @@ public boolean playerLost(){
      * Checks if the player is colliding with exits.
      *
      * @param position The current position of the player.
-     * @param exits    The array of exits in the game.
+     * @param exits    The spatial grid of exits in the game.
      * @return True if colliding with exits, false otherwise.
      */
-    public boolean isCollidingWithExits (Vector2 position, Array<Exit> exits) {
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
-
-        for (Exit exit : exits) {
-            Rectangle rect = new Rectangle(exit.getPosition().x, exit.getPosition().y, 12, 12);
-
-            if (playerRect.overlaps(rect)) {
-
-                // Collision detected with at least one exit
-                return exit.isClosed();
-            }
-        }
+    public boolean isCollidingWithExits (Vector2 position, SpatialGrid<Exit> exits) {
+        Exit exit = exits.findOverlapping(position.x, position.y, 12, 10, 12, 12);
 
-        return false; // No collision with any exit
+        // Colliding only with a closed exit blocks the player
+        return exit != null && exit.isClosed();
     }
 
     /**
      * Checks if the player has won by reaching an open exit with a key.
      *
      * @param position The current position of the player.
-     * @param exits    The array of exits in the game.
+     * @param exits    The spatial grid of exits in the game.
      * @return True if the player has won, false otherwise.
      */
-    public boolean playerWon (Vector2 position, Array<Exit> exits) {
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
+    public boolean playerWon (Vector2 position, SpatialGrid<Exit> exits) {
+        Exit exit = exits.findOverlapping(position.x, position.y, 12, 10, 12, 12);
 
-        for (Exit exit : exits) {
-            Rectangle rect = new Rectangle(exit.getPosition().x, exit.getPosition().y, 12, 12);
-
-            if (playerRect.overlaps(rect)) {
-
-                if (isGotKey() && !exit.isClosed()) {
-                    return true; // Collision detected with at least one exit
-                }
-            }
-        }
-
-        return false; // No collision with any exit
+        return exit != null && isGotKey() && !exit.isClosed();
     }
 
     /**
@@ -247,12 +257,8 @@ public boolean playerWon (Vector2 position, Array<Exit> exits) {
      * @return True if colliding with the key, false otherwise.
      */
     public boolean isCollidingWithKey (Vector2 position, Key key) {
-        Rectangle playerRect = new Rectangle(position.x, position.y, 12, 10);
-
-
-            Rectangle rect = new Rectangle(key.getPosition().x, key.getPosition().y, 5, 5);
-        return playerRect.overlaps(rect); // Collision detected with at least one key
-// No collision with any key
+        return SpatialGrid.overlaps(position.x, position.y, 12, 10,
+                key.getPosition().x, key.getPosition().y, 5, 5); // Collision detected with the key
     }
 
 
@@ -260,14 +266,16 @@ public boolean isCollidingWithKey (Vector2 position, Key key) {
      * Applies cheating to the player based on a cheat code.
      *
      * @param name The input cheat code.
+     * @return True if the cheat was applied, false otherwise.
      */
-    public void cheating(String name) {
+    public boolean cheating(String name) {
 
         String cheatCode = "UZBEKVIP";
         if (name!=null && name.equals(cheatCode)) {
             lives=lives+5;
-
+            return true;
         }
+        return false;
     }
     /**
      * Updates the state of the player.
@@ -278,7 +286,21 @@ public void cheating(String name) {
     public void update(float deltaTime) {
     }
 
-    // Dispose, getPosition, setPosition, getPlayerSpeed methods...
+    /**
+     * Releases the shared textures used by the player.
+     */
+    public void dispose() {
+        if (playerTexture != null) {
+            Assets.release(playerTexture);
+            playerTexture = null;
+        }
+        if (entryTexture != null) {
+            Assets.release(entryTexture);
+            entryTexture = null;
+        }
+    }
+
+    // getPosition, setPosition, getPlayerSpeed methods...
 
     public Vector2 getPosition() {
         return position;
@@ -292,24 +314,29 @@ public float getPlayerSpeed() {
         return playerSpeed;
     }
 
-    public Sprite getSpritePlayer() {
+    public TextureRegion getSpritePlayer() {
+        loadGraphics();
         return spritePlayer;
     }
 
     public Animation<TextureRegion> getCharacterDownAnimation() {
+        loadGraphics();
         return characterDownAnimation;
     }
 
 
     public Animation<TextureRegion> getCharacterUpAnimation() {
+        loadGraphics();
         return characterUpAnimation;
     }
 
     public Animation<TextureRegion> getCharacterLeftAnimation() {
+        loadGraphics();
         return characterLeftAnimation;
     }
 
     public Animation<TextureRegion> getCharacterRightAnimation() {
+        loadGraphics();
         return characterRightAnimation;
     }
 
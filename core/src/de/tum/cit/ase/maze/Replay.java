@@ -0,0 +1,358 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+
+/**
+ * The Replay class records the input of a game and plays it back. A {@link World} only depends on its maze,
+ * the seeds of its wandering enemies and the input of each tick, so recording the input tick by tick
+ * reproduces a game exactly, either in real time in {@link GameScreen} or headless, as fast as the
+ * simulation runs, with {@link #fastForward(World)}.
+ * <p>
+ * The input is stored as runs of ticks with the same input, so holding a key for a minute costs one run.
+ * Ticks only pass while the game is not paused, so pauses take no space. Replays are stored as follows:
+ * <pre>
+ * magic     4 bytes  "MRPL"
+ * version   int      {@link #VERSION}
+ * maze      UTF      path of the maze file
+ * cells     long     {@link Maze#checksum()} of the maze
+ * recorded  long     start of the game in milliseconds since the epoch
+ * lives     int      lives of the player at the start
+ * enemies   int      number of wandering enemies, followed by their random seeds as longs
+ * runs      int      number of input runs, followed by the input byte and the length in ticks (int) of each run
+ * outcome   byte     {@link #OUTCOME_UNFINISHED}, {@link #OUTCOME_WON} or {@link #OUTCOME_LOST} after the last tick
+ * checksum  long     {@link World#checksum()} after the last tick
+ * </pre>
+ * All numbers are big-endian.
+ */
+public class Replay {
+    public static final String EXTENSION = ".replay";
+    public static final int VERSION = 3;
+
+    // Outcomes of a recorded game
+    public static final int OUTCOME_UNFINISHED = 0;
+    public static final int OUTCOME_WON = 1;
+    public static final int OUTCOME_LOST = 2;
+
+    private static final byte[] MAGIC = {'M', 'R', 'P', 'L'};
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final String mazePath;
+    private final long mazeChecksum;
+    private final long recordedAt;
+    private final int lives;
+    private final long[] enemySeeds;
+    private final IntArray runInputs = new IntArray();
+    private final IntArray runLengths = new IntArray();
+    private long ticks;
+    private int outcome;
+    private long checksum;
+
+    /**
+     * Starts recording a game. The world must not have been stepped yet.
+     *
+     * @param mazePath The path of the maze file the game is played on.
+     * @param world    The world of the game, with the player's starting lives already set.
+     */
+    public Replay(String mazePath, World world) {
+        this(mazePath, world.getMaze().checksum(), System.currentTimeMillis(), world.getPlayer().getLives(),
+                world.getEnemySeeds());
+        this.outcome = outcomeOf(world);
+        this.checksum = world.checksum();
+    }
+
+    private Replay(String mazePath, long mazeChecksum, long recordedAt, int lives, long[] enemySeeds) {
+        this.mazePath = mazePath;
+        this.mazeChecksum = mazeChecksum;
+        this.recordedAt = recordedAt;
+        this.lives = lives;
+        this.enemySeeds = enemySeeds;
+    }
+
+    /**
+     * Records the input of the next tick.
+     *
+     * @param input The input passed to {@link World#step(float, int)}.
+     */
+    public void record(int input) {
+        int last = runInputs.size - 1;
+        if (last >= 0 && runInputs.get(last) == input && runLengths.get(last) < Integer.MAX_VALUE) {
+            runLengths.incr(last, 1);
+        } else {
+            runInputs.add(input);
+            runLengths.add(1);
+        }
+        ticks++;
+    }
+
+    /**
+     * Remembers the state the world has reached after the recorded ticks, so that playing the replay back can
+     * be verified.
+     *
+     * @param world The recorded world.
+     */
+    public void finish(World world) {
+        outcome = outcomeOf(world);
+        checksum = world.checksum();
+    }
+
+    /**
+     * Gets the outcome a world has reached.
+     *
+     * @param world The world.
+     * @return One of the {@code OUTCOME_} constants.
+     */
+    public static int outcomeOf(World world) {
+        if (world.isWon()) {
+            return OUTCOME_WON;
+        }
+        return world.isLost() ? OUTCOME_LOST : OUTCOME_UNFINISHED;
+    }
+
+    /**
+     * Creates a world in the state the recorded game started from.
+     *
+     * @param maze The maze of the recording, with its entities created.
+     * @return The new world, ready to be stepped.
+     * @throws IllegalArgumentException If the maze is not the one the replay was recorded on.
+     */
+    public World createWorld(Maze maze) {
+        if (maze.checksum() != mazeChecksum) {
+            throw new IllegalArgumentException("The replay was recorded on a different version of " + mazePath);
+        }
+        World world = new World(maze, enemySeeds);
+        world.getPlayer().setLives(lives);
+        return world;
+    }
+
+    /**
+     * Plays all recorded ticks on a world as fast as possible.
+     *
+     * @param world A world created by {@link #createWorld(Maze)}.
+     * @return True if the world ended in the recorded state, false if the game played out differently.
+     */
+    public boolean fastForward(World world) {
+        for (int run = 0; run < runInputs.size; run++) {
+            int input = runInputs.get(run);
+            for (int i = runLengths.get(run); i > 0; i--) {
+                world.step(World.TICK, input);
+            }
+        }
+        return world.checksum() == checksum;
+    }
+
+    /**
+     * The Playback class feeds the recorded input to a world one tick at a time, for replays in real time.
+     */
+    public class Playback {
+        private int run;
+        private int tickInRun;
+
+        /**
+         * Checks whether all recorded ticks have been played.
+         *
+         * @return True if there is no more input.
+         */
+        public boolean isFinished() {
+            return run >= runInputs.size;
+        }
+
+        /**
+         * Gets the input of the next tick.
+         *
+         * @return The recorded input, or 0 once the replay is finished.
+         */
+        public int next() {
+            if (isFinished()) {
+                return 0;
+            }
+            int input = runInputs.get(run);
+            if (++tickInRun == runLengths.get(run)) {
+                run++;
+                tickInRun = 0;
+            }
+            return input;
+        }
+    }
+
+    /**
+     * Writes the replay to a file.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(mazePath);
+            out.writeLong(mazeChecksum);
+            out.writeLong(recordedAt);
+            out.writeInt(lives);
+            out.writeInt(enemySeeds.length);
+            for (long seed : enemySeeds) {
+                out.writeLong(seed);
+            }
+            out.writeInt(runInputs.size);
+            for (int run = 0; run < runInputs.size; run++) {
+                out.writeByte(runInputs.get(run));
+                out.writeInt(runLengths.get(run));
+            }
+            out.writeByte(outcome);
+            out.writeLong(checksum);
+        }
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param path The path of the file.
+     * @return The replay.
+     * @throws IOException If the file cannot be read or is not a replay of this version.
+     */
+    public static Replay read(Path path) throws IOException {
+        long size = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(path + " is not a replay");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay version " + version + " in " + path);
+            }
+            String mazePath = in.readUTF();
+            long mazeChecksum = in.readLong();
+            long recordedAt = in.readLong();
+            int lives = in.readInt();
+            long[] enemySeeds = new long[readCount(in, Long.BYTES, size, "enemy", path)];
+            for (int i = 0; i < enemySeeds.length; i++) {
+                enemySeeds[i] = in.readLong();
+            }
+            Replay replay = new Replay(mazePath, mazeChecksum, recordedAt, lives, enemySeeds);
+            int runs = readCount(in, Byte.BYTES + Integer.BYTES, size, "input run", path);
+            for (int run = 0; run < runs; run++) {
+                int input = in.readUnsignedByte();
+                int length = in.readInt();
+                if (length <= 0) {
+                    throw new IOException("Malformed input run in " + path);
+                }
+                replay.runInputs.add(input);
+                replay.runLengths.add(length);
+                replay.ticks += length;
+            }
+            replay.outcome = in.readUnsignedByte();
+            if (replay.outcome > OUTCOME_LOST) {
+                throw new IOException("Unknown outcome " + replay.outcome + " in " + path);
+            }
+            replay.checksum = in.readLong();
+            return replay;
+        }
+    }
+
+    /**
+     * Reads the number of entries that follow in a replay file and checks that the file can hold that many,
+     * so that a corrupt file is rejected before anything is allocated for them.
+     *
+     * @param in         The stream of the file.
+     * @param entryBytes The size of each entry in bytes.
+     * @param size       The size of the file in bytes.
+     * @param name       The name of an entry for the error message.
+     * @param path       The path of the file for the error message.
+     * @return The number of entries.
+     * @throws IOException If the number cannot be read, is negative or is more than the file can hold.
+     */
+    private static int readCount(DataInputStream in, int entryBytes, long size, String name, Path path) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || (long) count * entryBytes > size) {
+            throw new IOException("Invalid " + name + " count " + count + " in " + path);
+        }
+        return count;
+    }
+
+    /**
+     * Gets a file name for the replay made of its maze and the time it was recorded,
+     * e.g. {@code level-1-20240131-153000.replay}.
+     *
+     * @return The file name.
+     */
+    public String getFileName() {
+        String maze = Path.of(mazePath).getFileName().toString();
+        int extension = maze.lastIndexOf('.');
+        if (extension > 0) {
+            maze = maze.substring(0, extension);
+        }
+        return maze + "-" + FILE_TIME.format(Instant.ofEpochMilli(recordedAt)) + EXTENSION;
+    }
+
+    public String getMazePath() {
+        return mazePath;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getRunCount() {
+        return runInputs.size;
+    }
+
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Replays recorded games headless as fast as possible and checks that they end in the recorded state.
+     * Usage: {@code Replay <replay file> [maze file]}; the maze defaults to the path stored in the replay.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Replay <replay file> [maze file]");
+            System.exit(1);
+        }
+        try {
+            Replay replay = read(Path.of(args[0]));
+            Maze maze = Maze.parse(args.length > 1 ? args[1] : replay.getMazePath());
+            maze.createEntities(Integer.MAX_VALUE);
+            World world = replay.createWorld(maze);
+            long start = System.nanoTime();
+            boolean same = replay.fastForward(world);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Replayed %d ticks (%.1f s of play) in %.0f ms, %.0f ticks/s: %s%n", replay.getTicks(),
+                    replay.getTicks() * World.TICK, seconds * 1000, replay.getTicks() / seconds,
+                    same ? "identical" : "DIVERGED from the recording");
+            if (!same) {
+                System.exit(2);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error replaying: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.tum.cit.ase.maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * The ReplayValidator class checks submitted runs before they are accepted into a leaderboard. Each run is a
+ * {@link Replay}: the maze, the input of every tick and the claimed result. A run is accepted only if replaying
+ * its input headless ends in exactly the recorded state with the claimed outcome, without cheats and without
+ * input after the end of the game.
+ * <p>
+ * Replays are validated in parallel, one replay per core. Each world is simulated on a single thread, so the
+ * parallelism comes from validating many replays at once rather than from splitting up one game.
+ */
+public class ReplayValidator {
+    private static final String[] OUTCOMES = {"unfinished", "won", "lost"}; // Names of the Replay.OUTCOME_ constants
+
+    private final Path mazeDirectory;
+    private final AtomicLong ticks = new AtomicLong(); // Ticks simulated by all validations
+
+    /**
+     * Constructs a new ReplayValidator.
+     *
+     * @param mazeDirectory The directory to look up maze files in by their file name, or null to use the
+     *                      paths stored in the replays.
+     */
+    public ReplayValidator(Path mazeDirectory) {
+        this.mazeDirectory = mazeDirectory;
+    }
+
+    /**
+     * Validates a replay. Safe to call from several threads at once.
+     *
+     * @param file The replay file.
+     * @return Null if the run is accepted, otherwise the reason why it is rejected.
+     */
+    public String validate(Path file) {
+        try {
+            Replay replay = Replay.read(file);
+            if (replay.getLives() != Player.STARTING_LIVES) {
+                return "started with " + replay.getLives() + " lives instead of " + Player.STARTING_LIVES;
+            }
+            String mazePath = replay.getMazePath();
+            if (mazeDirectory != null) {
+                mazePath = mazeDirectory.resolve(Path.of(mazePath).getFileName()).toString();
+            }
+            Maze maze = Maze.parse(mazePath);
+            maze.createEntities(Integer.MAX_VALUE);
+            World world = replay.createWorld(maze);
+            world.getEnemies().setPool(null); // Replays already run in parallel, one per core
+            boolean same = replay.fastForward(world);
+            ticks.addAndGet(world.getTicks());
+            if (world.getTicks() != replay.getTicks()) {
+                return "has input for " + (replay.getTicks() - world.getTicks()) + " ticks after the end of the game";
+            }
+            if (Replay.outcomeOf(world) != replay.getOutcome()) {
+                return "claims the game was " + OUTCOMES[replay.getOutcome()] + " but it was " + OUTCOMES[Replay.outcomeOf(world)];
+            }
+            if (!same) {
+                return "diverged from the recorded game";
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return e.getMessage() != null ? e.getMessage() : e.toString(); // A bad run must not abort the others
+        }
+    }
+
+    /**
+     * Gets the number of ticks simulated by all validations so far.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    /**
+     * Validates all replays in a directory and its subdirectories in parallel, prints every rejected run and the
+     * throughput. Usage: {@code ReplayValidator <replay directory> [maze directory]}. Exits with 0 if every run is
+     * accepted, 2 if any run is rejected and 1 on errors.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayValidator <replay directory> [maze directory]");
+            System.exit(1);
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(Path.of(args[0]))) {
+            files = walk.filter(path -> path.toString().endsWith(Replay.EXTENSION)).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            System.out.println("Error listing replays: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        ReplayValidator validator = new ReplayValidator(args.length > 1 ? Path.of(args[1]) : null);
+        String[] reasons = new String[files.size()];
+        long start = System.nanoTime();
+        IntStream.range(0, files.size()).parallel().forEach(i -> reasons[i] = validator.validate(files.get(i)));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int rejected = 0;
+        for (int i = 0; i < reasons.length; i++) {
+            if (reasons[i] != null) {
+                System.out.println("REJECTED " + files.get(i) + ": " + reasons[i]);
+                rejected++;
+            }
+        }
+        System.out.printf("Validated %d replays in %.2f s on %d cores: %d accepted, %d rejected, %.0f replays/s, %.0f ticks/s%n",
+                files.size(), seconds, Runtime.getRuntime().availableProcessors(), files.size() - rejected, rejected,
+                files.size() / seconds, validator.getTicks() / seconds);
+        System.exit(rejected > 0 ? 2 : 0);
+    }
+}
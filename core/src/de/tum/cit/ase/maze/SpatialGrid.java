@@ -0,0 +1,134 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+
+/**
+ * The SpatialGrid class is a uniform grid of buckets used for collision queries against static game objects.
+ * Each object is stored in the bucket of the grid cell that contains its position, so a query only has to
+ * look at the few buckets around the queried rectangle instead of scanning every object in the maze.
+ * Queries do not allocate and may run on several threads at once, as long as no objects are added meanwhile.
+ * <p>
+ * The grid covers a rectangle starting at its origin; objects and queries beyond its edges fall into the
+ * outermost buckets. A grid over a moving window, as for the active chunks of a streamed maze, is
+ * {@link #clear(float, float) cleared} and filled again whenever the window moves.
+ *
+ * @param <T> The type of game object stored in the grid.
+ */
+public class SpatialGrid<T extends GameObject> {
+    private final int width;
+    private final int height;
+    private final float cellSize;
+    private float originX;
+    private float originY;
+    private final int[] heads; // First item of each bucket, -1 if the bucket is empty
+    private final IntArray next; // Next item in the same bucket, -1 at the end
+    private final Array<T> items;
+
+    /**
+     * Constructs a new empty SpatialGrid.
+     *
+     * @param width    The number of grid cells along the x-axis.
+     * @param height   The number of grid cells along the y-axis.
+     * @param cellSize The size of each grid cell in pixels.
+     */
+    public SpatialGrid(int width, int height, float cellSize) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        this.cellSize = cellSize;
+        this.heads = new int[this.width * this.height];
+        Arrays.fill(heads, -1);
+        this.next = new IntArray();
+        this.items = new Array<>();
+    }
+
+    /**
+     * Removes all game objects and moves the grid to a new origin.
+     *
+     * @param originX The x-coordinate of the bottom-left corner of the grid in pixels.
+     * @param originY The y-coordinate of the bottom-left corner of the grid in pixels.
+     */
+    public void clear(float originX, float originY) {
+        this.originX = originX;
+        this.originY = originY;
+        Arrays.fill(heads, -1);
+        next.clear();
+        items.clear();
+    }
+
+    /**
+     * Adds a game object to the bucket of its current position.
+     * Objects are expected not to move after being added.
+     *
+     * @param item The game object to add.
+     */
+    public void add(T item) {
+        int bucket = bucketX(item.getPosition().x) + bucketY(item.getPosition().y) * width;
+        items.add(item);
+        next.add(heads[bucket]);
+        heads[bucket] = items.size - 1;
+    }
+
+    /**
+     * Finds a game object whose bounds overlap the given rectangle.
+     * The bounds of every object start at its position and have the given size.
+     *
+     * @param x          The x-coordinate of the rectangle.
+     * @param y          The y-coordinate of the rectangle.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @param itemWidth  The width of the bounds of each object.
+     * @param itemHeight The height of the bounds of each object.
+     * @return An overlapping game object, or null if there is none.
+     */
+    public T findOverlapping(float x, float y, float rectWidth, float rectHeight, float itemWidth, float itemHeight) {
+        int firstX = bucketX(x - itemWidth);
+        int lastX = bucketX(x + rectWidth);
+        int firstY = bucketY(y - itemHeight);
+        int lastY = bucketY(y + rectHeight);
+
+        for (int by = firstY; by <= lastY; by++) {
+            for (int bx = firstX; bx <= lastX; bx++) {
+                for (int i = heads[bx + by * width]; i >= 0; i = next.items[i]) {
+                    T item = items.get(i);
+                    if (overlaps(x, y, rectWidth, rectHeight,
+                            item.getPosition().x, item.getPosition().y, itemWidth, itemHeight)) {
+                        return item;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether two rectangles overlap, with the same semantics as
+     * {@link com.badlogic.gdx.math.Rectangle#overlaps}.
+     *
+     * @return True if the rectangles overlap, false otherwise.
+     */
+    public static boolean overlaps(float x1, float y1, float width1, float height1,
+                                   float x2, float y2, float width2, float height2) {
+        return x1 < x2 + width2 && x1 + width1 > x2 && y1 < y2 + height2 && y1 + height1 > y2;
+    }
+
+    /**
+     * Gets all game objects stored in the grid.
+     *
+     * @return The stored game objects in insertion order.
+     */
+    public Array<T> getItems() {
+        return items;
+    }
+
+    private int bucketX(float x) {
+        return Math.min(width - 1, Math.max(0, (int) Math.floor((x - originX) / cellSize)));
+    }
+
+    private int bucketY(float y) {
+        return Math.min(height - 1, Math.max(0, (int) Math.floor((y - originY) / cellSize)));
+    }
+}
@@ -0,0 +1,147 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+
+/**
+ * The TrapStore class holds all traps of a game as parallel arrays of positions and animation times.
+ * Traps never move, so collisions with them are checked on the maze grid, see {@link Maze#overlapsTrap};
+ * the store only keeps what changes over time and finds the trap of a cell for rendering.
+ */
+public class TrapStore extends EntityStore {
+    private final int mazeHeight;
+    private final LongMap<Integer> handleOfCell = new LongMap<>(); // Trap handle by cell index (long) x * height + y, which fits streamed mazes too
+
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] stateTime = new float[0];
+
+    private Texture texture;
+    private Animation<TextureRegion> trapAnimation;
+
+    /**
+     * Constructs a new empty TrapStore for a maze.
+     *
+     * @param mazeHeight The height of the maze in cells, used to index the traps by cell.
+     */
+    public TrapStore(int mazeHeight) {
+        this.mazeHeight = mazeHeight;
+    }
+
+    /**
+     * Adds a trap in a maze cell.
+     *
+     * @param cellX The x-coordinate of the cell.
+     * @param cellY The y-coordinate of the cell.
+     * @return The handle of the trap.
+     */
+    public int add(int cellX, int cellY) {
+        int slot = allocate();
+        x[slot] = cellX * Maze.CELL_SIZE;
+        y[slot] = cellY * Maze.CELL_SIZE;
+        stateTime[slot] = 0f;
+        int handle = getHandle(slot);
+        handleOfCell.put((long) cellX * mazeHeight + cellY, handle);
+        return handle;
+    }
+
+    @Override
+    public void remove(int handle) {
+        int slot = getSlot(handle);
+        if (slot >= 0) {
+            handleOfCell.remove((long) Maze.cellOf(x[slot]) * mazeHeight + Maze.cellOf(y[slot]));
+        }
+        super.remove(handle);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        handleOfCell.clear();
+    }
+
+    /**
+     * Advances the animation of every trap.
+     *
+     * @param delta The time passed since the last update.
+     */
+    public void update(float delta) {
+        for (int i = 0; i < size; i++) {
+            stateTime[i] += delta;
+        }
+    }
+
+    /**
+     * Finds the trap in a maze cell.
+     *
+     * @param cellX The x-coordinate of the cell.
+     * @param cellY The y-coordinate of the cell.
+     * @return The slot of the trap, or -1 if the cell holds no trap.
+     */
+    public int findAt(int cellX, int cellY) {
+        Integer handle = handleOfCell.get((long) cellX * mazeHeight + cellY);
+        return handle == null ? -1 : getSlot(handle);
+    }
+
+    /**
+     * Loads the trap animation on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
+        }
+        this.texture = Assets.acquire(Assets.OBJECTS);
+
+        // Shared trap animation, frames are arranged horizontally in the texture
+        trapAnimation = Assets.animation(Assets.OBJECTS, 64, 48, 16, 16, 7, 0.1f);
+    }
+
+    /**
+     * Renders a trap at its position.
+     *
+     * @param batch The sprite batch used for rendering.
+     * @param slot  The slot of the trap.
+     */
+    public void render(SpriteBatch batch, int slot) {
+        loadGraphics();
+        batch.draw(trapAnimation.getKeyFrame(stateTime[slot], true), x[slot], y[slot]);
+    }
+
+    /**
+     * Releases the shared trap texture.
+     */
+    public void dispose() {
+        if (texture != null) {
+            Assets.release(texture);
+            texture = null;
+        }
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        stateTime = Arrays.copyOf(stateTime, capacity);
+    }
+
+    @Override
+    protected void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        stateTime[to] = stateTime[from];
+    }
+}
@@ -1,9 +1,7 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 
@@ -13,9 +11,8 @@
  * and adds wall-specific functionality.
  */
 public class Wall extends GameObject{
-    private Texture textureWall;
-    private Sprite spriteWall;
-    private Sprite spriteWallBack;
+    private TextureRegion spriteWall;
+    private TextureRegion spriteWallBack;
     private boolean isBackWall;
     private float stateTime = 0.0f;
 
@@ -27,14 +24,20 @@ public class Wall extends GameObject{
      */
     public Wall(Vector2 position) {
         super(position);
-        this.textureWall = new Texture(Gdx.files.internal("basictiles.png"));
-
-        // Initialize the sprite for this wall
-        this.spriteWall = new Sprite(textureWall, 32, 0, 16, 16);
-        this.spriteWallBack = new Sprite(textureWall, 48, 0, 16, 16);
+    }
 
-        this.spriteWall.setPosition(position.x, position.y);
+    /**
+     * Loads the wall's sprites on first use.
+     */
+    private void loadGraphics() {
+        if (texture != null) {
+            return;
+        }
+        super.texture = Assets.acquire(Assets.BASIC_TILES);
 
+        // Use the shared regions for this wall
+        this.spriteWall = Assets.region(Assets.BASIC_TILES, 32, 0, 16, 16);
+        this.spriteWallBack = Assets.region(Assets.BASIC_TILES, 48, 0, 16, 16);
     }
 
 
@@ -55,6 +58,7 @@ public void update(float deltaTime) {
      * @param spriteBatch The sprite batch used for rendering.
      */
     public void render(SpriteBatch spriteBatch) {
+        loadGraphics();
         if (isBackWall==false) {
             spriteBatch.draw(spriteWall, position.x, position.y);
         } else if (isBackWall==true) {
@@ -72,6 +76,7 @@ public void render(SpriteBatch spriteBatch) {
      * @param y            The y-coordinate of the rendering position.
      */
     public void render(SpriteBatch spriteBatch, float x, float y) {
+        loadGraphics();
 
         if (isBackWall==false) {
             spriteBatch.draw(spriteWall, x, y);
@@ -86,8 +91,7 @@ public void render(SpriteBatch spriteBatch, float x, float y) {
      */
     @Override
     public void dispose() {
-        super.dispose(); // Dispose of the base GameObject resources
-        textureWall.dispose();
+        super.dispose(); // Release the shared texture
     }
 
     public void setBackWall(boolean backWall) {
@@ -13,7 +13,6 @@
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
@@ -26,13 +25,17 @@ public class WonScreen implements Screen {
     private final MazeRunnerGame game; // Reference to the main game instance
     private Animation<TextureRegion> characterAnimation; // Animation of the player character
     private float animationTime; // Time for animation playback
+    private Texture walkSheet; // Shared character sheet
+    private static final int BEST_SHOWN = 5; // High scores listed below the buttons
 
     /**
      * Constructor for WonScreen.
      *
-     * @param game The MazeRunnerGame instance.
+     * @param game  The MazeRunnerGame instance.
+     * @param ticks The length of the won game in ticks, or 0 if it does not count for the high scores.
+     * @param rank  The rank of the game on the high scores of the map, or 0 if it is not among the best.
      */
-    public WonScreen(MazeRunnerGame game) {
+    public WonScreen(MazeRunnerGame game, int ticks, int rank) {
         this.game = game;
         var camera = new OrthographicCamera();
         camera.zoom = 1.0f;
@@ -55,22 +58,15 @@ public void changed(ChangeEvent event, Actor actor) {
                 game.goToMapSelection(); // Go back to the main menu
             }
         });
+        addHighScores(table, ticks, rank);
 
-        // Load the player character's celebration animation
-        Texture walkSheet = new Texture(Gdx.files.internal("character.png"));
+        // Load the player character's celebration animation from the shared sheet
+        walkSheet = Assets.acquire(Assets.CHARACTER);
 
         int frameWidth = 16;
         int frameHeight = 32;
-        int animationFrames = 13;
 
-        Array<TextureRegion> walkFrames = new Array<>();
-
-        // Add all frames to the down animation
-        for (int i = 9; i < animationFrames; i++) {
-            walkFrames.add(new TextureRegion(walkSheet, i * frameWidth, 0, frameWidth, frameHeight));
-        }
-
-        characterAnimation = new Animation<>(0.2f, walkFrames);
+        characterAnimation = Assets.animation(Assets.CHARACTER, 9 * frameWidth, 0, frameWidth, frameHeight, 4, 0.2f);
         animationTime = 0;
     }
 
@@ -106,6 +102,31 @@ public void render(float delta) {
         game.getSpriteBatch().end();
     }
 
+    /**
+     * Adds the time of the game, its rank and the best times of the map below the buttons.
+     *
+     * @param table The table of the screen.
+     * @param ticks The length of the won game in ticks, or 0 if it does not count for the high scores.
+     * @param rank  The rank of the game on the high scores of the map, or 0 if it is not among the best.
+     */
+    private void addHighScores(Table table, int ticks, int rank) {
+        HighScores highScores = game.getHighScores();
+        if (ticks == 0 || highScores == null) {
+            return;
+        }
+        String result = "Time: " + HighScores.formatTime(ticks) + (rank > 0 ? "   Rank " + rank : "");
+        table.row();
+        table.add(new Label(result, game.getSkin())).padTop(30).row();
+
+        HighScores.Board board = highScores.getBoard(HighScores.mapOf(game.getMazePath()));
+        StringBuilder best = new StringBuilder();
+        for (int i = 0; i < Math.min(BEST_SHOWN, board.size()); i++) {
+            best.append(i + 1).append(". ").append(board.getName(i)).append("  ")
+                    .append(HighScores.formatTime(board.getTicks(i))).append('\n');
+        }
+        table.add(new Label(best, game.getSkin())).padTop(10);
+    }
+
     @Override
     public void resize(int width, int height) {
         stage.getViewport().update(width, height, true);
@@ -114,6 +135,7 @@ public void resize(int width, int height) {
     @Override
     public void dispose() {
         stage.dispose();
+        Assets.release(walkSheet);
     }
 
     @Override
@@ -0,0 +1,555 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongArray;
+
+
+/**
+ * The World class holds the state and the rules of a running game: movement, collisions,
+ * the key, exit and lives rules and the enemy AI. It does not draw or play anything and never
+ * touches {@code Gdx.graphics} or {@code Gdx.audio}, so games can be simulated without an OpenGL context.
+ * <p>
+ * The world advances in fixed ticks through {@link #step(float, int)}. What happened during a tick
+ * that a view may want to react to, such as a lost life or a collected key, is reported as event flags
+ * through {@link #getEvents()}; {@link GameScreen} turns them into sounds.
+ * <p>
+ * The starting state is kept as a {@link Snapshot}, so {@link #restart()} resets the world in place
+ * without reloading the maze or creating any objects.
+ * <p>
+ * Only the wandering enemies near the player are simulated; an {@link EnemyScheduler} puts the others to sleep
+ * and wakes them as the player walks through the maze. In a streamed maze, see {@link Maze#isStreamed()}, only
+ * the entities of the chunks around the player exist; a {@link ChunkStreamer} creates them as the player comes near.
+ */
+public class World {
+    public static final float TICK = 1 / 60f; // Length of a simulation tick in seconds
+
+    // Input flags for step()
+    public static final int INPUT_UP = 1;
+    public static final int INPUT_DOWN = 1 << 1;
+    public static final int INPUT_LEFT = 1 << 2;
+    public static final int INPUT_RIGHT = 1 << 3;
+
+    // Event flags reported by getEvents()
+    public static final int EVENT_LIFE_LOST = 1;
+    public static final int EVENT_GHOST = 1 << 1;
+    public static final int EVENT_KEY_COLLECTED = 1 << 2;
+    public static final int EVENT_MOVE = 1 << 3;
+    public static final int EVENT_HIT = 1 << 4;
+    public static final int EVENT_VICTORY = 1 << 5;
+
+    // Directions reported by getPlayerDirection()
+    public static final int DIRECTION_NONE = 0;
+    public static final int DIRECTION_UP = 1;
+    public static final int DIRECTION_DOWN = 2;
+    public static final int DIRECTION_LEFT = 3;
+    public static final int DIRECTION_RIGHT = 4;
+
+    private static final int FLOW_FIELD_DEPTH = 32; // Walking distance in cells covered by the flow field
+    private static final int PATH_NODE_BUDGET = 2000; // Cells the pathfinder may expand per tick
+    private static final int PATH_CACHE_SIZE = 64; // Routes kept by the pathfinder
+    private static final float GLITCH_DURATION = 0.1f; // Time the player flickers after taking damage
+    private static final float WIN_DELAY = 0.5f; // Time the player has to stay in an open exit
+
+    private final Maze maze;
+    private final FlowField flowField; // Shortest paths to the player for chasing enemies
+    private final Pathfinder pathfinder; // Routes between arbitrary cells, searched within a per-tick budget
+    private final FrameProfiler profiler = new FrameProfiler(); // Times the collision, enemy and pathfinding phases when enabled
+    private Player player;
+    private final IntelligentEnemy yovuz;
+    private final TrapStore traps;
+    private final EnemyStore enemies = new EnemyStore(); // The awake wandering enemies
+    private final EnemyScheduler scheduler; // Puts the enemies far from the player to sleep
+    private final Array<Exit> exits = new Array<>();
+    private final SpatialGrid<Exit> exitGrid;
+    private final ChunkStreamer streamer; // Creates the entities around the player in a streamed maze, null otherwise
+    private Key key;
+    private final Snapshot start;
+
+    private float glitchTimer = 0f;
+    private float winInterval = WIN_DELAY;
+    private boolean playerDamage = false;
+    private boolean won = false;
+    private int playerDirection = DIRECTION_NONE;
+    private int events;
+    private long ticks;
+    private final Vector2 nextPosition = new Vector2(); // Scratch position for collision checks
+
+    /**
+     * The Snapshot class holds the starting values of what changes while a world is played: the player's position
+     * and lives and the starting position and random seed of each wandering enemy. Everything else starts from a
+     * fixed state: the key is visible, the exits are closed and the intelligent enemy is at home.
+     */
+    private static final class Snapshot {
+        private final float playerX;
+        private final float playerY;
+        private final int lives;
+        private final float[] enemyX;
+        private final float[] enemyY;
+        private final long[] enemySeeds;
+
+        private Snapshot(Player player, float[] enemyX, float[] enemyY, long[] enemySeeds) {
+            this.playerX = player.getPosition().x;
+            this.playerY = player.getPosition().y;
+            this.lives = player.getLives();
+            this.enemyX = enemyX;
+            this.enemyY = enemyY;
+            this.enemySeeds = enemySeeds;
+        }
+    }
+
+    /**
+     * Constructs a new World from the entities of a maze.
+     *
+     * @param maze The maze with its entities created.
+     */
+    public World(Maze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * Constructs a new World from the entities of a maze, with the given random seeds for the wandering enemies.
+     * A replay passes the seeds it was recorded with, so it plays out the same even if the way seeds are
+     * derived from the maze changes.
+     *
+     * @param maze       The maze with its entities created.
+     * @param enemySeeds The seeds of the wandering enemies in load order, or null to derive them from their cells.
+     *                   The enemies of a streamed maze are always seeded from their cells.
+     * @throws IllegalArgumentException If the number of seeds does not match the number of enemies.
+     */
+    public World(Maze maze, long[] enemySeeds) {
+        this.maze = maze;
+        this.flowField = new FlowField(maze, FLOW_FIELD_DEPTH);
+        this.pathfinder = new Pathfinder(maze, PATH_NODE_BUDGET, PATH_CACHE_SIZE);
+        this.traps = new TrapStore(maze.getHeight());
+        this.scheduler = new EnemyScheduler(maze, enemies);
+        int cellSize = Maze.CELL_SIZE;
+        FloatArray enemyX = new FloatArray();
+        FloatArray enemyY = new FloatArray();
+        LongArray startSeeds = new LongArray();
+
+        // Loop through the entity cells of the maze and initialize game elements
+        for (int i = 0; i < maze.getEntityCount(); i++) {
+            Cell cell = maze.getEntityCell(i);
+            // Calculate position based on cell size
+            float cellX = maze.getEntityX(i) * cellSize;
+            float cellY = maze.getEntityY(i) * cellSize;
+
+            switch (cell.getType()) {
+                case 1:
+                    if (player == null) { // Assuming there's only one player in the maze
+                        player = cell.getPlayer();
+                        player.setPosition(new Vector2(cellX, cellY));
+                    }
+                    break;
+
+                case 2:
+                    Exit exit = cell.getExit();
+                    exit.position.set(cellX, cellY);
+                    exits.add(exit);
+                    break;
+
+                case 3:
+                    traps.add(maze.getEntityX(i), maze.getEntityY(i));
+                    break;
+
+                case 4:
+                    if (enemySeeds != null && startSeeds.size == enemySeeds.length) {
+                        throw new IllegalArgumentException("The maze has more enemies than the " + enemySeeds.length + " seeds given");
+                    }
+                    long seed = enemySeeds == null ? EnemyStore.seedOf(maze.getEntityX(i), maze.getEntityY(i)) : enemySeeds[startSeeds.size];
+                    enemies.add(cellX, cellY, seed);
+                    enemyX.add(cellX);
+                    enemyY.add(cellY);
+                    startSeeds.add(seed);
+                    break;
+
+                case 5:
+                    key = cell.getKey();
+                    key.setPosition(new Vector2(cellX, cellY));
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        MazeChunks chunks = maze.getChunks();
+        if (chunks != null) {
+            // A streamed maze has no entity cells up front, only the entry and the key are known
+            if (chunks.getEntryX() >= 0) {
+                player = maze.getCell(chunks.getEntryX(), chunks.getEntryY()).getPlayer();
+                player.setPosition(new Vector2(chunks.getEntryX() * cellSize, chunks.getEntryY() * cellSize));
+            }
+            if (chunks.getKeyX() >= 0) {
+                key = maze.getCell(chunks.getKeyX(), chunks.getKeyY()).getKey();
+                key.setPosition(new Vector2(chunks.getKeyX() * cellSize, chunks.getKeyY() * cellSize));
+            }
+        }
+        if (player == null) {
+            player = new Player(new Vector2());
+        }
+        if (enemySeeds != null && enemySeeds.length != startSeeds.size) {
+            throw new IllegalArgumentException("The maze has " + startSeeds.size + " enemies, but " + enemySeeds.length + " seeds were given");
+        }
+
+        if (chunks != null) {
+            // The streamer keeps the exits of the active chunks in its own grid and creates the entities around the player
+            this.streamer = new ChunkStreamer(maze, enemies, traps, exits);
+            this.exitGrid = streamer.getExitGrid();
+            streamer.update(player.getPosition(), false);
+        } else {
+            // Index exits in a uniform grid for collision queries. Walls and traps are queried
+            // directly on the maze grid, where cells outside the maze also count as walls.
+            this.streamer = null;
+            int bucketCells = 4;
+            int bucketsX = (maze.getWidth() + bucketCells - 1) / bucketCells;
+            int bucketsY = (maze.getHeight() + bucketCells - 1) / bucketCells;
+            this.exitGrid = new SpatialGrid<>(bucketsX, bucketsY, cellSize * bucketCells);
+            for (int i = 0; i < exits.size; i++) {
+                exitGrid.add(exits.get(i));
+            }
+        }
+        scheduler.update(player.getPosition(), ticks, TICK);
+
+        if (key == null) {
+            throw new IllegalArgumentException("The maze has no key");
+        }
+
+        // Initialize Yovuz based on key's position
+        this.yovuz = new IntelligentEnemy(new Vector2(key.getPosition().x,key.getPosition().y));
+
+        // Start interpolation from the spawn positions
+        savePositions();
+        this.start = new Snapshot(player, enemyX.toArray(), enemyY.toArray(), startSeeds.toArray());
+    }
+
+    /**
+     * Advances the world by one tick: damage, enemies, the player's movement and the win condition.
+     * The outcome only depends on the state, the tick length and the input.
+     *
+     * @param delta The length of the tick (in seconds), normally {@link #TICK}.
+     * @param input The pressed directions as a combination of the {@code INPUT_} flags.
+     */
+    public void step(float delta, int input) {
+        events = 0;
+        if (isOver()) {
+            return;
+        }
+        ticks++;
+        if (streamer != null) {
+            streamer.update(player.getPosition(), player.isGotKey());
+        }
+        scheduler.update(player.getPosition(), ticks, delta);
+        savePositions();
+
+        long start = profiler.begin();
+        if (glitchTimer==0){
+            playerDamage = player.isCollidingWithEnemies(player.getPosition(),enemies,yovuz,delta) || player.isCollidingWithTraps(player.getPosition(),maze,delta);
+        }
+        profiler.end(FrameProfiler.COLLISION, start);
+
+        // Update game elements
+        start = profiler.begin();
+        key.update(delta);
+        enemies.update(delta, maze);
+        traps.update(delta);
+        player.update(delta);
+        profiler.end(FrameProfiler.ENEMY_AI, start);
+        start = profiler.begin();
+        flowField.update(player.getPosition()); // Only recomputed when the player enters another cell
+        pathfinder.update();
+        profiler.end(FrameProfiler.PATHFINDING, start);
+        start = profiler.begin();
+        yovuz.update(delta,player.getPosition(),flowField,pathfinder);
+        profiler.end(FrameProfiler.ENEMY_AI, start);
+
+        if (playerDamage) {
+            events |= EVENT_LIFE_LOST;
+        }
+
+        // Intelligent enemy detects the player and starts following
+        if (yovuz.checker()) {
+            events |= EVENT_GHOST;
+        }
+
+        // Check if the player has stayed in an open exit long enough to win
+        if (player.playerWon(player.getPosition(),exitGrid)) {
+            winInterval-=delta;
+            if (winInterval<=0){
+                events |= EVENT_VICTORY;
+                won = true;
+            }
+        }
+
+        start = profiler.begin();
+        movePlayer(delta, input);
+        profiler.end(FrameProfiler.COLLISION, start);
+    }
+
+    /**
+     * Moves the player according to the input, collecting the key and stopping at walls and closed exits.
+     *
+     * @param delta The length of the tick (in seconds).
+     * @param input The pressed directions as a combination of the {@code INPUT_} flags.
+     */
+    private void movePlayer(float delta, int input) {
+        float moveAmount = player.getPlayerSpeed() * delta;
+        float deltaX = 0, deltaY = 0;
+
+        if (playerDamage) {
+            glitchTimer += delta;
+            if (glitchTimer >= GLITCH_DURATION) {
+                playerDamage = false; // End glitch effect
+                glitchTimer = 0;
+            }
+        }
+
+        // One direction at a time, in the same priority as the arrow keys were always checked
+        if ((input & INPUT_UP) != 0) {
+            playerDirection = DIRECTION_UP;
+            deltaY = moveAmount;
+        } else if ((input & INPUT_DOWN) != 0) {
+            playerDirection = DIRECTION_DOWN;
+            deltaY = -moveAmount;
+        } else if ((input & INPUT_LEFT) != 0) {
+            playerDirection = DIRECTION_LEFT;
+            deltaX = -moveAmount;
+        } else if ((input & INPUT_RIGHT) != 0) {
+            playerDirection = DIRECTION_RIGHT;
+            deltaX = moveAmount;
+        } else {
+            playerDirection = DIRECTION_NONE;
+        }
+
+        nextPosition.set(player.getPosition()).add(deltaX, deltaY);
+        if (key.isVisible()&&player.isCollidingWithKey(nextPosition,key)) {
+            key.setVisible(false);
+            events |= EVENT_KEY_COLLECTED;
+            player.setGotKey(true);
+            for (int i = 0; i < exits.size; i++) {
+                exits.get(i).setClosed(false);
+            }
+        }
+
+        // Check if moving in the new direction would cause a collision
+        if (!player.isCollidingWithWalls(nextPosition, maze) &&
+                (!player.isCollidingWithExits(nextPosition, exitGrid))) {
+            // Only move the player if there is no collision
+            player.move(deltaX, deltaY);
+            if (playerDirection != DIRECTION_NONE) {
+                events |= EVENT_MOVE;
+            }
+        } else {
+            events |= EVENT_HIT;
+        }
+    }
+
+    /**
+     * Remembers the positions of all moving objects, rendering interpolates from there.
+     */
+    private void savePositions() {
+        player.savePosition();
+        yovuz.savePosition();
+        enemies.savePositions();
+    }
+
+    /**
+     * Restores the starting state of the world, which then plays out exactly like a new world of the same maze.
+     * Nothing is allocated, so restarting takes far less than a frame even for large mazes.
+     */
+    public void restart() {
+        player.reset(start.playerX, start.playerY, start.lives);
+        key.setVisible(true);
+        for (int i = 0; i < exits.size; i++) {
+            exits.get(i).setClosed(true);
+        }
+        yovuz.reset();
+        enemies.clear();
+        for (int i = 0; i < start.enemySeeds.length; i++) {
+            enemies.add(start.enemyX[i], start.enemyY[i], start.enemySeeds[i]);
+        }
+        scheduler.reset();
+        if (streamer != null) {
+            streamer.reset();
+            streamer.update(player.getPosition(), false);
+        }
+        scheduler.update(player.getPosition(), 0, TICK);
+        pathfinder.clear(); // Routes would otherwise arrive earlier than in a new world
+
+        glitchTimer = 0f;
+        winInterval = WIN_DELAY;
+        playerDamage = false;
+        won = false;
+        playerDirection = DIRECTION_NONE;
+        events = 0;
+        ticks = 0;
+    }
+
+    /**
+     * Computes a checksum of the state that decides how the game plays out: the tick, the player, the key,
+     * the intelligent enemy and every wandering enemy, awake or asleep. Two worlds with the same checksum after
+     * the same ticks have, with near certainty, played out the same way.
+     *
+     * @return A hash of the state of the world.
+     */
+    public long checksum() {
+        Vector2 position = player.getPosition();
+        long hash = ticks;
+        hash = hash * 31 + Float.floatToIntBits(position.x);
+        hash = hash * 31 + Float.floatToIntBits(position.y);
+        hash = hash * 31 + player.getLives();
+        hash = hash * 31 + (player.isGotKey() ? 1 : 0) + (key.isVisible() ? 2 : 0) + (won ? 4 : 0) + (playerDamage ? 8 : 0);
+        hash = hash * 31 + Float.floatToIntBits(glitchTimer);
+        hash = hash * 31 + Float.floatToIntBits(winInterval);
+        hash = hash * 31 + Float.floatToIntBits(yovuz.getPosition().x);
+        hash = hash * 31 + Float.floatToIntBits(yovuz.getPosition().y);
+        // Added rather than mixed in, so the checksum of a world without sleeping enemies stays the same
+        return hash * 31 + enemies.checksum() + scheduler.checksum();
+    }
+
+    /**
+     * Gets the random seeds of the wandering enemies at the start of the game, in load order.
+     *
+     * @return A copy of the seeds.
+     */
+    public long[] getEnemySeeds() {
+        return start.enemySeeds.clone();
+    }
+
+    /**
+     * Checks whether the game has ended, either because the player won or lost.
+     *
+     * @return True if the game is over, false otherwise.
+     */
+    public boolean isOver() {
+        return won || player.playerLost();
+    }
+
+    /**
+     * Checks whether the player has won by staying in an open exit with the key.
+     *
+     * @return True if the player has won, false otherwise.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Checks whether the player has lost all lives.
+     *
+     * @return True if the player has lost, false otherwise.
+     */
+    public boolean isLost() {
+        return player.playerLost();
+    }
+
+    /**
+     * Checks whether the player is standing in an open exit while holding the key.
+     *
+     * @return True if the player is in an open exit with the key, false otherwise.
+     */
+    public boolean isPlayerAtOpenExit() {
+        return player.playerWon(player.getPosition(), exitGrid);
+    }
+
+    /**
+     * Gets the events of the last tick.
+     *
+     * @return A combination of the {@code EVENT_} flags.
+     */
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the direction the player moved in during the last tick.
+     *
+     * @return One of the {@code DIRECTION_} constants.
+     */
+    public int getPlayerDirection() {
+        return playerDirection;
+    }
+
+    /**
+     * Checks whether the player has just taken damage and should flicker.
+     *
+     * @return True while the damage effect lasts, false otherwise.
+     */
+    public boolean isPlayerDamaged() {
+        return playerDamage;
+    }
+
+    /**
+     * Releases the shared textures held by the objects of the world and by the cells of its maze.
+     * Every object loads its textures when first drawn, so this is needed whenever a world has been rendered.
+     */
+    public void dispose() {
+        player.dispose(); // The entry cell's player, or one of the world's own
+        yovuz.dispose();
+        enemies.dispose();
+        traps.dispose();
+        maze.dispose(); // Also the key and the exits, which belong to their cells
+    }
+
+    /**
+     * Gets the number of ticks simulated so far.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public IntelligentEnemy getYovuz() {
+        return yovuz;
+    }
+
+    public EnemyScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    public TrapStore getTraps() {
+        return traps;
+    }
+
+    public Array<Exit> getExits() {
+        return exits;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public Pathfinder getPathfinder() {
+        return pathfinder;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public SpatialGrid<Exit> getExitGrid() {
+        return exitGrid;
+    }
+
+    public ChunkStreamer getStreamer() {
+        return streamer;
+    }
+}
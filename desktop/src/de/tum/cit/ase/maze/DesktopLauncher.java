@@ -4,18 +4,52 @@
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Maze Runner game.
  * It sets up the game window and launches the game using LibGDX framework.
  */
 public class DesktopLauncher {
+	private static final String JFR_OPTION = "--jfr";
+	private static final String DEFAULT_RECORDING = "maze-runner.jfr";
+	private static final String RECORD_OPTION = "--record";
+	private static final String DEFAULT_REPLAY_DIRECTORY = "replays";
+	private static final String REPLAY_OPTION = "--replay=";
+
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments: {@code --jfr} or {@code --jfr=<file>} records a Java Flight Recording
+	 *            of the whole session, including the game's own events, to {@value #DEFAULT_RECORDING} or the given file;
+	 *            {@code --record} or {@code --record=<directory>} saves a replay of every game to
+	 *            {@value #DEFAULT_REPLAY_DIRECTORY} or the given directory; {@code --replay=<file>} plays a replay
 	 */
 	public static void main(String[] arg) {
+		MazeRunnerGame game = new MazeRunnerGame(new DesktopFileChooser());
+		Recording recording = null;
+		for (String option : arg) {
+			if (option.equals(JFR_OPTION)) {
+				recording = startRecording(Path.of(DEFAULT_RECORDING));
+			} else if (option.startsWith(JFR_OPTION + "=")) {
+				recording = startRecording(Path.of(option.substring(JFR_OPTION.length() + 1)));
+			} else if (option.equals(RECORD_OPTION)) {
+				game.setRecordingDirectory(Path.of(DEFAULT_REPLAY_DIRECTORY));
+			} else if (option.startsWith(RECORD_OPTION + "=")) {
+				game.setRecordingDirectory(Path.of(option.substring(RECORD_OPTION.length() + 1)));
+			} else if (option.startsWith(REPLAY_OPTION)) {
+				try {
+					game.setReplay(Replay.read(Path.of(option.substring(REPLAY_OPTION.length()))));
+				} catch (IOException e) {
+					System.out.println("Error reading replay: " + e.getMessage());
+				}
+			}
+		}
+
 		// Configuration for the game window
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setTitle("Maze Runner"); // Set the window title
@@ -31,6 +65,34 @@ public static void main(String[] arg) {
 		config.setForegroundFPS(60); // Set the foreground frames per second
 
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		new Lwjgl3Application(game, config);
+
+		if (recording != null) {
+			recording.stop(); // Writes the recording to its file
+			recording.close();
+		}
+	}
+
+	/**
+	 * Starts a flight recording with the JDK's profiling settings, which add allocation and
+	 * garbage collection details to the game's own events.
+	 *
+	 * @param file The file the recording is written to when the game exits.
+	 * @return The running recording, or null if it could not be started.
+	 */
+	private static Recording startRecording(Path file) {
+		try {
+			Recording recording = new Recording(Configuration.getConfiguration("profile"));
+			recording.setName("Maze Runner");
+			recording.setToDisk(true);
+			recording.setDestination(file);
+			recording.setDumpOnExit(true); // Also written if the game exits through System.exit()
+			recording.start();
+			System.out.println("Recording to " + file.toAbsolutePath());
+			return recording;
+		} catch (Exception e) {
+			System.out.println("Error starting flight recording: " + e.getMessage());
+			return null;
+		}
 	}
 }